@@ -16,20 +16,27 @@
 package com.android.tools.adtui.model;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import org.jetbrains.annotations.NotNull;
-
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-
+import org.jetbrains.annotations.NotNull;
 
+/**
+ * {@link DataSeries} backed by an in-memory list. The X values are also kept in a primitive array so lookups by X do not need to box
+ * or copy the data.
+ */
 public class DefaultDataSeries<E> implements DataSeries<E> {
+  private static final int INITIAL_CAPACITY = 16;
+
   @NotNull protected final List<SeriesData<E>> mSeriesList = new ArrayList<>();
 
+  /**
+   * X values of {@link #mSeriesList}, in the same order. Only the first {@code mSeriesList.size()} entries are valid.
+   */
+  @NotNull private long[] myXValues = new long[INITIAL_CAPACITY];
+
   @NotNull
   private List<SeriesData<E>> getDataSubList(final int fromIndex, final int toIndex) {
-    return IntStream.range(fromIndex, toIndex).mapToObj(index -> mSeriesList.get(index)).collect(Collectors.toList());
+    return new ArrayList<>(mSeriesList.subList(fromIndex, toIndex));
   }
 
   @Override
@@ -52,6 +59,11 @@ public class DefaultDataSeries<E> implements DataSeries<E> {
    * Implementations need to store both the x, and y values. For a given index the X value should correspond to the Y value.
    */
   public void add(long x, E y) {
+    int size = size();
+    if (size == myXValues.length) {
+      myXValues = Arrays.copyOf(myXValues, size * 2);
+    }
+    myXValues[size] = x;
     mSeriesList.add(new SeriesData<>(x, y));
   }
 
@@ -71,7 +83,7 @@ public class DefaultDataSeries<E> implements DataSeries<E> {
   }
 
   public int getNearestXIndex(long x) {
-    int index = Collections.binarySearch(mSeriesList.stream().map(data -> data.x).collect(Collectors.toList()), x);
+    int index = Arrays.binarySearch(myXValues, 0, size(), x);
 
     if (index < 0) {
       // No exact match, returns position to the left of the insertion point.
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.android.tools.adtui.model;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.List;
+import org.junit.Test;
+
+public class DefaultDataSeriesTest {
+
+  @Test
+  public void testGetNearestXIndex() {
+    DefaultDataSeries<Long> series = new DefaultDataSeries<>();
+    // Add more items than the initial capacity to make sure the X values are grown correctly.
+    for (int i = 0; i < 100; i++) {
+      series.add(i * 10, (long)i);
+    }
+
+    assertThat(series.getNearestXIndex(-5)).isEqualTo(0);
+    assertThat(series.getNearestXIndex(0)).isEqualTo(0);
+    assertThat(series.getNearestXIndex(15)).isEqualTo(1);
+    assertThat(series.getNearestXIndex(500)).isEqualTo(50);
+    assertThat(series.getNearestXIndex(2000)).isEqualTo(99);
+  }
+
+  @Test
+  public void testGetDataForRange() {
+    DefaultDataSeries<Long> series = new DefaultDataSeries<>();
+    assertThat(series.getDataForRange(new Range(0, 100))).isEmpty();
+
+    for (int i = 0; i < 100; i++) {
+      series.add(i * 10, (long)i);
+    }
+
+    List<SeriesData<Long>> data = series.getDataForRange(new Range(105, 200));
+    assertThat(data).hasSize(11);
+    assertThat(data.get(0).x).isEqualTo(100);
+    assertThat(data.get(10).x).isEqualTo(200);
+
+    // The returned data should not be affected by data added afterwards.
+    series.add(1000, 100L);
+    assertThat(data).hasSize(11);
+    assertThat(series.getAllData()).hasSize(101);
+  }
+}
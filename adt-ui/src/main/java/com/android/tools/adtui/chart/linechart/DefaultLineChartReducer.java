@@ -31,6 +31,11 @@ class DefaultLineChartReducer implements LineChartReducer {
    */
   private static int PATH_ITERATOR_COORDS_COUNT = 6;
 
+  /**
+   * Maximum number of points kept for each pixel column by {@link #reduceDataToPixels}: the first, last, min and max points.
+   */
+  private static final int POINTS_PER_PIXEL = 4;
+
   /**
    * A simple reducer which reduces when,
    * 1. When the data is for a stepped line and if two consecutive values are equal (except for the last two points),
@@ -66,6 +71,68 @@ class DefaultLineChartReducer implements LineChartReducer {
     return reduced;
   }
 
+  /**
+   * Keeps, for every pixel column, the first and last points and the points with minimum and maximum values, in their original order.
+   * This is the same selection {@link #reducePath(Path2D, LineConfig)} does, but it runs before the path is built so the work done
+   * per frame is bounded by the width of the chart.
+   */
+  @Override
+  public List<SeriesData<Long>> reduceDataToPixels(@NotNull List<SeriesData<Long>> dataList,
+                                                   @NotNull LineConfig config,
+                                                   double xMin,
+                                                   double xLength,
+                                                   int pixelWidth) {
+    if (config.getDataBucketInterval() > 0 || pixelWidth <= 0 || xLength <= 0 ||
+        dataList.size() <= POINTS_PER_PIXEL * pixelWidth) {
+      return dataList;
+    }
+
+    List<SeriesData<Long>> reduced = new ArrayList<>(POINTS_PER_PIXEL * (pixelWidth + 2));
+    long pixel = 0;
+    int firstIndex = -1, minIndex = -1, maxIndex = -1;
+    for (int i = 0; i < dataList.size(); i++) {
+      SeriesData<Long> data = dataList.get(i);
+      long currentPixel = (long)Math.floor((data.x - xMin) / xLength * pixelWidth);
+      if (firstIndex == -1 || currentPixel != pixel) {
+        if (firstIndex != -1) {
+          addPixelPoints(reduced, dataList, firstIndex, minIndex, maxIndex, i - 1);
+        }
+        pixel = currentPixel;
+        firstIndex = minIndex = maxIndex = i;
+      }
+      else {
+        if (data.value < dataList.get(minIndex).value) {
+          minIndex = i;
+        }
+        if (data.value >= dataList.get(maxIndex).value) {
+          maxIndex = i;
+        }
+      }
+    }
+    addPixelPoints(reduced, dataList, firstIndex, minIndex, maxIndex, dataList.size() - 1);
+    return reduced;
+  }
+
+  /**
+   * Adds the first, min, max and last points of a pixel column, in the order they appear in the data and without duplicates.
+   */
+  private static void addPixelPoints(@NotNull List<SeriesData<Long>> reduced,
+                                     @NotNull List<SeriesData<Long>> dataList,
+                                     int firstIndex, int minIndex, int maxIndex, int lastIndex) {
+    reduced.add(dataList.get(firstIndex));
+    int lowIndex = Math.min(minIndex, maxIndex);
+    int highIndex = Math.max(minIndex, maxIndex);
+    if (lowIndex != firstIndex) {
+      reduced.add(dataList.get(lowIndex));
+    }
+    if (highIndex != lowIndex && highIndex != firstIndex) {
+      reduced.add(dataList.get(highIndex));
+    }
+    if (lastIndex != highIndex && lastIndex != firstIndex) {
+      reduced.add(dataList.get(lastIndex));
+    }
+  }
+
   /**
   * The basic idea behind this algorithm is to reduce number of points to available pixels.
   * For every pixel it draws 4 points: the first point, the last point,
@@ -223,6 +223,7 @@ public class LineChart extends AnimatedComponent {
       double firstXd = 0f;
       // Actual value of first point
       double firstX = 0;
+      seriesList = myReducer.reduceDataToPixels(seriesList, config, xMin, xLength, dim.width);
       seriesList = myReducer.reduceData(seriesList, config);
       double xBucketInterval = config.getDataBucketInterval() / xLength;
       double xBucketBarWidth = xBucketInterval * BUCKET_BAR_PERCENTAGE;
@@ -31,6 +31,23 @@ public interface LineChartReducer {
    */
   List<SeriesData<Long>> reduceData(List<SeriesData<Long>> data, LineConfig config);
 
+  /**
+   * Reduces data used to represent a line to a number of points bounded by the given width in pixels, so the cost of building
+   * the path only depends on the size of the chart and not on the amount of data in the visible range.
+   * The result shouldn't affect the looking of the line when it's drawn.
+   *
+   * @param xMin       value of X drawn at the left edge of the chart.
+   * @param xLength    length of the X range drawn in the chart.
+   * @param pixelWidth width of the chart in pixels.
+   */
+  default List<SeriesData<Long>> reduceDataToPixels(List<SeriesData<Long>> data,
+                                                    LineConfig config,
+                                                    double xMin,
+                                                    double xLength,
+                                                    int pixelWidth) {
+    return data;
+  }
+
   /**
    * Reduces the given path in a pixel level, i.e when dimensions are available.
    * The result shouldn't affect the looking of the line when it's drawn.
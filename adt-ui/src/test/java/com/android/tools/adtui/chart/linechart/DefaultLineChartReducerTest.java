@@ -66,6 +66,36 @@ public class DefaultLineChartReducerTest {
     assertSeriesEquals(expected, result);
   }
 
+  @Test
+  public void reduceDataToPixels() {
+    List<SeriesData<Long>> data = new ImmutableList.Builder<SeriesData<Long>>()
+      // 1st pixel
+      .add(new SeriesData<>(0, 10L))
+      .add(new SeriesData<>(1, 20L))
+      .add(new SeriesData<>(2, 5L))
+      .add(new SeriesData<>(3, 12L))
+      .add(new SeriesData<>(4, 11L))
+      // 2nd pixel
+      .add(new SeriesData<>(5, 7L))
+      .add(new SeriesData<>(6, 8L))
+      .add(new SeriesData<>(7, 9L))
+      .add(new SeriesData<>(8, 9L))
+      .add(new SeriesData<>(9, 6L)).build();
+    List<SeriesData<Long>> expected = new ImmutableList.Builder<SeriesData<Long>>()
+      .add(new SeriesData<>(0, 10L))
+      .add(new SeriesData<>(1, 20L))
+      .add(new SeriesData<>(2, 5L))
+      .add(new SeriesData<>(4, 11L))
+      .add(new SeriesData<>(5, 7L))
+      .add(new SeriesData<>(8, 9L))
+      .add(new SeriesData<>(9, 6L)).build();
+    List<SeriesData<Long>> result = myReducer.reduceDataToPixels(data, myConfig, 0, 10, 2);
+    assertSeriesEquals(expected, result);
+
+    // Data that already fits in the available pixels is not reduced.
+    assertThat(myReducer.reduceDataToPixels(data, myConfig, 0, 10, 10)).isSameAs(data);
+  }
+
   @Test
   public void reduceDataForSteppedLine() {
     List<SeriesData<Long>> data = new ImmutableList.Builder<SeriesData<Long>>()
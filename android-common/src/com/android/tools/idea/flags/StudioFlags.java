@@ -402,6 +402,24 @@ public final class StudioFlags {
     DefaultActivityLocatorStrategy.INDEX
   );
 
+  public static final Flag<Boolean> CONCURRENT_MULTI_DEVICE_LAUNCH = Flag.create(
+    RUNDEBUG,
+    "concurrent.multi.device.launch",
+    "Launch on multiple devices concurrently",
+    "When launching on more than one device, run the install and launch tasks of all devices at the same time. A device whose tasks "
+      + "fail no longer stops the launch on the other devices.",
+    false
+  );
+
+  public static final Flag<Boolean> BINARY_LOGCAT_FORMAT = Flag.create(
+    RUNDEBUG,
+    "binary.logcat.format",
+    "Read logcat in its binary format",
+    "On devices running API 24 or later, read the logcat messages shown in the Logcat tool window with 'logcat -B' instead of "
+      + "parsing the text output of 'logcat -v long'.",
+    false
+  );
+
   public static final Flag<Boolean> SUPPORT_FEATURE_ON_FEATURE_DEPS = Flag.create(
     RUNDEBUG,
     "feature.on.feature",
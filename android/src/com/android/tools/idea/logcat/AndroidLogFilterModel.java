@@ -48,6 +48,8 @@ public abstract class AndroidLogFilterModel extends LogFilterModel {
   @Nullable private Pattern myCustomPattern;
   private boolean myCustomApplicable = false; // True if myCustomPattern matches this message
   private boolean myConfiguredApplicable = false;  // True if the active filter matches this message
+  // False if this message is rejected by its header alone, in which case none of its lines need to be matched
+  private boolean myHeaderApplicable = false;
 
   @Nullable private AndroidLogcatFilter myConfiguredFilter;
 
@@ -135,9 +137,30 @@ public abstract class AndroidLogFilterModel extends LogFilterModel {
   @Override
   public final boolean isApplicable(String line) {
     // Not calling the super class version, it does not do what we want with regular expression matching
-    if (myCustomPattern != null && !myCustomPattern.matcher(line).find()) return false;
     final LogFilter selectedLogLevelFilter = getSelectedLogLevelFilter();
-    return selectedLogLevelFilter == null || selectedLogLevelFilter.isAcceptable(line);
+    if (selectedLogLevelFilter != null && !selectedLogLevelFilter.isAcceptable(line)) return false;
+    return isApplicableByCustomPattern(line);
+  }
+
+  private boolean isApplicableByCustomPattern(@NotNull String line) {
+    return myCustomPattern == null || myCustomPattern.matcher(line).find();
+  }
+
+  // Checks the parts of the filters which only depend on the header of a message: the selected log level, the time before which old
+  // messages are rejected and the structured fields of the active filter. These are cheap compared to the patterns matched against the
+  // text of each line, which are skipped for all lines of a message rejected here.
+  private boolean isApplicableByHeader(@NotNull LogCatHeader header) {
+    final AndroidLogLevelFilter selectedLogLevelFilter = getSelectedLogLevelFilter();
+    if (selectedLogLevelFilter != null && header.getLogLevel().getPriority() < selectedLogLevelFilter.myLogLevel.getPriority()) {
+      return false;
+    }
+
+    if (myRejectBeforeHeader != null && header.isBefore(myRejectBeforeHeader)) {
+      return false;
+    }
+
+    return myConfiguredFilter == null ||
+           myConfiguredFilter.isHeaderApplicable(header.getTag(), header.getAppName(), header.getPid(), header.getLogLevel());
   }
 
 
@@ -176,7 +199,7 @@ public abstract class AndroidLogFilterModel extends LogFilterModel {
   public abstract String getSelectedLogLevelName();
 
   @Nullable
-  private LogFilter getSelectedLogLevelFilter() {
+  private AndroidLogLevelFilter getSelectedLogLevelFilter() {
     final String filterName = getSelectedLogLevelName();
     if (filterName != null) {
       for (AndroidLogLevelFilter logFilter : myLogLevelFilters) {
@@ -211,6 +234,7 @@ public abstract class AndroidLogFilterModel extends LogFilterModel {
     myRejectBeforeHeader = null;
     myCustomApplicable = false;
     myConfiguredApplicable = false;
+    myHeaderApplicable = false;
     myMessageSoFar.setLength(0);
   }
 
@@ -227,33 +251,33 @@ public abstract class AndroidLogFilterModel extends LogFilterModel {
 
     if (message != null) {
       myPrevHeader = message.getHeader();
-      myCustomApplicable = isApplicable(line);
-      myConfiguredApplicable = isApplicableByConfiguredFilter(message.getMessage());
+      myHeaderApplicable = isApplicableByHeader(myPrevHeader);
+      myCustomApplicable = myHeaderApplicable && isApplicableByCustomPattern(line);
+      myConfiguredApplicable = myHeaderApplicable && isApplicableByConfiguredFilter(message.getMessage());
       myMessageSoFar.setLength(0);
     }
-    else {
-      myCustomApplicable = myCustomApplicable || isApplicable(continuation);
+    else if (myHeaderApplicable) {
+      myCustomApplicable = myCustomApplicable || isApplicableByCustomPattern(continuation);
       myConfiguredApplicable = myConfiguredApplicable || isApplicableByConfiguredFilter(continuation);
     }
 
-    boolean isApplicable = myCustomApplicable && myConfiguredApplicable;
-    if (isApplicable && myRejectBeforeHeader != null) {
-      isApplicable = !myPrevHeader.isBefore(myRejectBeforeHeader);
+    Key key = AndroidLogcatUtils.getProcessOutputType(myPrevHeader.getLogLevel());
+    if (!myHeaderApplicable) {
+      // No later line of this message can make it applicable, so there is no need to keep it around as a prefix
+      return new MyProcessingResult(key, false, null);
     }
 
+    boolean isApplicable = myCustomApplicable && myConfiguredApplicable;
     if (!isApplicable) {
-      // Even if this message isn't applicable right now, store it in case it becomes so later
+      // Even if this message isn't applicable right now, store it in case it becomes so later. The prefix is only used once the
+      // message is applicable, so it isn't copied for the lines which are not.
       myMessageSoFar.append(line);
       myMessageSoFar.append('\n');
+      return new MyProcessingResult(key, false, null);
     }
 
-    Key key = AndroidLogcatUtils.getProcessOutputType(myPrevHeader.getLogLevel());
-    MyProcessingResult result = new MyProcessingResult(key, isApplicable, myMessageSoFar.toString());
-
-    if (isApplicable) {
-      myMessageSoFar.setLength(0); // Don't need anymore, already added as a prefix at this point
-    }
-
+    MyProcessingResult result = new MyProcessingResult(key, true, myMessageSoFar.toString());
+    myMessageSoFar.setLength(0); // Don't need anymore, already added as a prefix at this point
     return result;
   }
 }
@@ -33,4 +33,12 @@ public interface AndroidLogcatFilter {
    * Returns {@code true} if the current logcat message should be accepted, {@code false} otherwise.
    */
   boolean isApplicable(@NotNull String message, @NotNull String tag, @NotNull String pkg, int pid, @NotNull Log.LogLevel logLevel);
+
+  /**
+   * Returns {@code false} if every message with this header would be rejected by {@link #isApplicable}, whatever its text. Callers
+   * use this to skip matching the text of messages, and of their continuation lines, which can't be accepted anyway.
+   */
+  default boolean isHeaderApplicable(@NotNull String tag, @NotNull String pkg, int pid, @NotNull Log.LogLevel logLevel) {
+    return true;
+  }
 }
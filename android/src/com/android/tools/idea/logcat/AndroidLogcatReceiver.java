@@ -127,6 +127,47 @@ public final class AndroidLogcatReceiver extends AndroidOutputReceiver implement
     }
   }
 
+  /**
+   * Processes a whole message, as read by {@link BinaryLogcatReceiver}, rather than one line of 'logcat -v long' output. Newlines
+   * are handled like in the text format: leading and trailing ones are dropped, and the lines in between are reported one by one.
+   */
+  void processMessage(@NotNull LogCatHeader header, @NotNull String message) {
+    myStackTraceExpander.reset();
+    myActiveHeader = header;
+    myLineIndex = 0;
+    myDelayedNewlineCount = 0;
+
+    int start = 0;
+    int end = message.length();
+    while (start < end && isNewline(message.charAt(start))) {
+      start++;
+    }
+    while (end > start && isNewline(message.charAt(end - 1))) {
+      end--;
+    }
+
+    while (start < end) {
+      int lineEnd = message.indexOf('\n', start);
+      if (lineEnd < 0 || lineEnd > end) {
+        lineEnd = end;
+      }
+      String line = CARRIAGE_RETURN.matcher(message.substring(start, lineEnd)).replaceAll("");
+      if (line.isEmpty()) {
+        notifyLine(header, line);
+      }
+      else {
+        for (String processedLine : myStackTraceExpander.process(line)) {
+          notifyLine(header, processedLine);
+        }
+      }
+      start = lineEnd + 1;
+    }
+  }
+
+  private static boolean isNewline(char c) {
+    return c == '\n' || c == '\r';
+  }
+
   // This method is package protected so other Logcat components can feed receiver processed log lines if they need to
   void notifyLine(@NotNull LogCatHeader header, @NotNull String line) {
     myLogcatListener.onLogLineReceived(new LogCatMessage(header, line));
@@ -19,7 +19,9 @@ import com.android.ddmlib.*;
 import com.android.ddmlib.Log.LogLevel;
 import com.android.ddmlib.logcat.LogCatHeader;
 import com.android.ddmlib.logcat.LogCatMessage;
+import com.android.sdklib.AndroidVersion;
 import com.android.tools.idea.IdeInfo;
+import com.android.tools.idea.flags.StudioFlags;
 import com.android.tools.idea.run.LoggingReceiver;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
@@ -61,38 +63,18 @@ public final class AndroidLogcatService implements AndroidDebugBridge.IDeviceCha
     return Logger.getInstance(AndroidLogcatService.class);
   }
 
-  private static class LogcatBuffer {
-    private int myBufferSize;
-    private final LinkedList<LogCatMessage> myMessages = new LinkedList<>();
-
-    public void addMessage(@NotNull LogCatMessage message) {
-      myMessages.add(message);
-      myBufferSize += message.getMessage().length();
-      if (ConsoleBuffer.useCycleBuffer()) {
-        while (myBufferSize > ConsoleBuffer.getCycleBufferSize()) {
-          myBufferSize -= myMessages.removeFirst().getMessage().length();
-        }
-      }
-    }
-
-    @NotNull
-    public List<LogCatMessage> getMessages() {
-      return myMessages;
-    }
-  }
-
   private static class ListenerConnector implements LogcatListener {
     @GuardedBy("myListenerLock")
     @Nullable private LogcatListener myListener; // Initially not null, set to null when disconnected.
     @GuardedBy("myBacklogLock")
-    @Nullable private Queue<LogCatMessage> myBacklog; // myBacklog is either null or not empty.
+    @Nullable private Iterator<LogCatMessage> myBacklog; // myBacklog is either null or has more messages.
     // The two locks bellow should never be held simultaneously or for a prolonged period of time.
     @NotNull private final Object myListenerLock = new Object();
     @NotNull private final Object myBacklogLock = new Object();
 
-    ListenerConnector(@NotNull LogcatListener listener, @NotNull Collection<LogCatMessage> messageBacklog) {
+    ListenerConnector(@NotNull LogcatListener listener, @NotNull Iterator<LogCatMessage> messageBacklog) {
       myListener = listener;
-      myBacklog = messageBacklog.isEmpty() ? null : new ArrayDeque<>(messageBacklog);
+      myBacklog = messageBacklog.hasNext() ? messageBacklog : null;
     }
 
     @Override
@@ -149,8 +131,8 @@ public final class AndroidLogcatService implements AndroidDebugBridge.IDeviceCha
         if (myBacklog == null) {
           return null;
         }
-        LogCatMessage message = myBacklog.remove();
-        if (myBacklog.isEmpty()) {
+        LogCatMessage message = myBacklog.next();
+        if (!myBacklog.hasNext()) {
           myBacklog = null;
         }
         return message;
@@ -213,7 +195,8 @@ public final class AndroidLogcatService implements AndroidDebugBridge.IDeviceCha
 
       AndroidLogcatReceiver receiver = newAndroidLogcatReceiver(device);
       myLogReceivers.put(device, receiver);
-      myLogBuffers.put(device, new LogcatBuffer());
+      int maxBufferSize = ConsoleBuffer.useCycleBuffer() ? ConsoleBuffer.getCycleBufferSize() : Integer.MAX_VALUE;
+      myLogBuffers.put(device, new LogcatBuffer(maxBufferSize));
       myExecutors.get(device).execute(() -> executeLogcat(device, receiver));
     }
   }
@@ -238,9 +221,14 @@ public final class AndroidLogcatService implements AndroidDebugBridge.IDeviceCha
     });
   }
 
-  private static void executeLogcat(@NotNull IShellEnabledDevice device, @NotNull AndroidLogcatReceiver receiver) {
+  private static void executeLogcat(@NotNull IDevice device, @NotNull AndroidLogcatReceiver receiver) {
     try {
-      execute(device, supportsEpochFormatModifier(device) ? "logcat -v long -v epoch" : "logcat -v long", receiver, Duration.ZERO);
+      if (useBinaryFormat(device)) {
+        device.executeShellCommand("logcat -B", new BinaryLogcatReceiver(device, receiver), 0, TimeUnit.MILLISECONDS);
+      }
+      else {
+        execute(device, supportsEpochFormatModifier(device) ? "logcat -v long -v epoch" : "logcat -v long", receiver, Duration.ZERO);
+      }
     }
     catch (Throwable throwable) {
       getLog().warn(throwable);
@@ -250,6 +238,11 @@ public final class AndroidLogcatService implements AndroidDebugBridge.IDeviceCha
     }
   }
 
+  // Older versions of adbd run shell commands in a pty, which mangles binary output by translating its newlines
+  private static boolean useBinaryFormat(@NotNull IDevice device) {
+    return StudioFlags.BINARY_LOGCAT_FORMAT.get() && device.getVersion().isGreaterOrEqualThan(AndroidVersion.VersionCodes.N);
+  }
+
   private static boolean supportsEpochFormatModifier(@NotNull IShellEnabledDevice device)
       throws TimeoutException, AdbCommandRejectedException, ShellCommandUnresponsiveException, IOException {
     LogcatHelpReceiver receiver = new LogcatHelpReceiver();
@@ -366,17 +359,18 @@ public final class AndroidLogcatService implements AndroidDebugBridge.IDeviceCha
    */
   public void addListener(@NotNull IDevice device, @NotNull LogcatListener listener, boolean addOldLogs) {
     synchronized (myLock) {
-      List<LogCatMessage> oldMessages =
-          addOldLogs && myLogBuffers.containsKey(device) ? myLogBuffers.get(device).getMessages() : ImmutableList.of();
+      LogcatBuffer buffer = myLogBuffers.get(device);
+      boolean hasOldMessages = addOldLogs && buffer != null && !buffer.isEmpty();
 
-      ListenerConnector listenerConnector = new ListenerConnector(listener, oldMessages);
+      ListenerConnector listenerConnector =
+          new ListenerConnector(listener, hasOldMessages ? buffer.iterator() : Collections.emptyIterator());
       myDeviceToListenerMultimap.put(device, listenerConnector);
 
       if (device.isOnline()) {
         startReceiving(device);
       }
 
-      if (!oldMessages.isEmpty()) {
+      if (hasOldMessages) {
         ExecutorService executor = myExecutors.get(device);
         assert executor != null;
         executor.execute(() -> listenerConnector.processBacklog());
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.android.tools.idea.logcat;
+
+import com.android.ddmlib.IDevice;
+import com.android.ddmlib.IShellOutputReceiver;
+import com.android.ddmlib.Log.LogLevel;
+import com.android.ddmlib.logcat.LogCatHeader;
+import com.intellij.openapi.diagnostic.Logger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An {@link IShellOutputReceiver} which reads the output of 'logcat -B' and hands each message over to an
+ * {@link AndroidLogcatReceiver}.
+ *
+ * <p>Each entry of the binary format is a little endian {@code logger_entry} header, starting with the length of the payload and the
+ * size of the header itself, followed by the payload: the priority, then the NUL terminated tag and message. Entries are decoded
+ * straight from the adb stream, so there is no header line to match nor message lines to stitch together.
+ */
+final class BinaryLogcatReceiver implements IShellOutputReceiver {
+  // Size of the version 1 header, which leaves its size field as 0. Later versions add fields after these ones.
+  private static final int V1_HEADER_SIZE = 20;
+  // logger_entry.len is 16 bits wide, and no version of the header so far comes close to this size.
+  private static final int MAX_HEADER_SIZE = 256;
+  private static final int MAX_ENTRY_SIZE = MAX_HEADER_SIZE + 0xFFFF;
+
+  private static final LogLevel[] LOG_LEVELS = LogLevel.values();
+
+  private final IDevice myDevice;
+  private final AndroidLogcatReceiver myReceiver;
+
+  // Bytes of an entry which was only partially received so far.
+  private final ByteBuffer myPending = ByteBuffer.allocate(MAX_ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+  private boolean myCorrupted;
+
+  BinaryLogcatReceiver(@NotNull IDevice device, @NotNull AndroidLogcatReceiver receiver) {
+    myDevice = device;
+    myReceiver = receiver;
+  }
+
+  @Override
+  public void addOutput(byte[] data, int offset, int length) {
+    if (myCorrupted) {
+      return;
+    }
+
+    ByteBuffer input = ByteBuffer.wrap(data, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+    if (myPending.position() > 0) {
+      // Complete the pending entry first, taking no more than it needs so the rest can be read in place
+      while (input.hasRemaining()) {
+        int entrySize = getEntrySize(myPending, 0, myPending.position());
+        if (entrySize < 0) {
+          return;
+        }
+        int needed = entrySize == 0 ? 4 - myPending.position() : entrySize - myPending.position();
+        if (needed == 0) {
+          break;
+        }
+        int count = Math.min(needed, input.remaining());
+        myPending.put(data, input.position(), count);
+        input.position(input.position() + count);
+      }
+
+      int entrySize = getEntrySize(myPending, 0, myPending.position());
+      if (entrySize <= 0 || myPending.position() < entrySize) {
+        return;
+      }
+      processEntry(myPending, 0);
+      myPending.clear();
+    }
+
+    while (input.hasRemaining()) {
+      int position = input.position();
+      int entrySize = getEntrySize(input, position, input.remaining());
+      if (entrySize < 0) {
+        return;
+      }
+      if (entrySize == 0 || input.remaining() < entrySize) {
+        myPending.put(data, position, input.remaining());
+        return;
+      }
+      processEntry(input, position);
+      input.position(position + entrySize);
+    }
+  }
+
+  /**
+   * Returns the size of the entry starting at {@code start}, 0 if not enough of it is available to tell yet, or -1 if the stream is
+   * corrupted, in which case the rest of it is ignored.
+   */
+  private int getEntrySize(@NotNull ByteBuffer buffer, int start, int available) {
+    if (available < 4) {
+      return 0;
+    }
+    int payloadSize = Short.toUnsignedInt(buffer.getShort(start));
+    int headerSize = getHeaderSize(buffer, start);
+    if (headerSize < V1_HEADER_SIZE || headerSize > MAX_HEADER_SIZE) {
+      Logger.getInstance(BinaryLogcatReceiver.class)
+        .warn("Unexpected logcat entry header size " + headerSize + ", ignoring the rest of the output");
+      myCorrupted = true;
+      return -1;
+    }
+    return headerSize + payloadSize;
+  }
+
+  private static int getHeaderSize(@NotNull ByteBuffer buffer, int start) {
+    int headerSize = Short.toUnsignedInt(buffer.getShort(start + 2));
+    return headerSize == 0 ? V1_HEADER_SIZE : headerSize;
+  }
+
+  private void processEntry(@NotNull ByteBuffer buffer, int start) {
+    int payloadSize = Short.toUnsignedInt(buffer.getShort(start));
+    if (payloadSize == 0) {
+      return;
+    }
+    int pid = buffer.getInt(start + 4);
+    int tid = buffer.getInt(start + 8);
+    long seconds = Integer.toUnsignedLong(buffer.getInt(start + 12));
+    int nanos = buffer.getInt(start + 16);
+
+    int payloadStart = start + getHeaderSize(buffer, start);
+    int payloadEnd = payloadStart + payloadSize;
+
+    LogLevel level = getLogLevel(buffer.get(payloadStart));
+    int tagStart = payloadStart + 1;
+    int tagEnd = indexOfNul(buffer, tagStart, payloadEnd);
+    int messageStart = Math.min(tagEnd + 1, payloadEnd);
+    // The message is normally NUL terminated, but may not be if it was truncated
+    int messageEnd = indexOfNul(buffer, messageStart, payloadEnd);
+
+    String tag = decode(buffer, tagStart, tagEnd);
+    String message = decode(buffer, messageStart, messageEnd);
+    String appName = myDevice.getClientName(pid);
+    if (appName == null || appName.isEmpty()) {
+      appName = "?";
+    }
+
+    LogCatHeader header = new LogCatHeader(level, pid, tid, appName, tag, Instant.ofEpochSecond(seconds, nanos));
+    myReceiver.processMessage(header, message);
+  }
+
+  @NotNull
+  private static LogLevel getLogLevel(int priority) {
+    for (LogLevel level : LOG_LEVELS) {
+      if (level.getPriority() == priority) {
+        return level;
+      }
+    }
+    // Below VERBOSE are the unknown and default priorities, above ASSERT is the silent one, none of which should be used by messages
+    return priority < LogLevel.VERBOSE.getPriority() ? LogLevel.VERBOSE : LogLevel.ASSERT;
+  }
+
+  private static int indexOfNul(@NotNull ByteBuffer buffer, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (buffer.get(i) == 0) {
+        return i;
+      }
+    }
+    return end;
+  }
+
+  // Both the pending entry and the input wrap an array, so the text is decoded straight from it
+  @NotNull
+  private static String decode(@NotNull ByteBuffer buffer, int start, int end) {
+    return new String(buffer.array(), buffer.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void flush() {
+  }
+
+  @Override
+  public boolean isCancelled() {
+    return myReceiver.isCancelled();
+  }
+}
@@ -19,6 +19,8 @@ import com.android.ddmlib.Log;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
@@ -26,12 +28,16 @@ import java.util.regex.Pattern;
  * multiple predicate patterns (all non-null predicates must match).
  */
 public final class DefaultAndroidLogcatFilter implements AndroidLogcatFilter {
+  private static final int MAX_CACHED_MATCHES = 10000;
+
   @NotNull private final String myName;
   @Nullable private final Pattern myMessagePattern;
   @Nullable private final Pattern myTagPattern;
   @Nullable private final Pattern myPkgNamePattern;
   @Nullable private final String myPid;
   @Nullable private final Log.LogLevel myLogLevel;
+  private final Map<String, Boolean> myTagMatches = new ConcurrentHashMap<>();
+  private final Map<String, Boolean> myPkgNameMatches = new ConcurrentHashMap<>();
 
   public static final class Builder {
     @NotNull private final String myName;
@@ -99,30 +105,51 @@ public final class DefaultAndroidLogcatFilter implements AndroidLogcatFilter {
 
   @Override
   public boolean isApplicable(@NotNull String message, @NotNull String tag, @NotNull String pkg, int pid, @NotNull Log.LogLevel logLevel) {
-    if (myLogLevel != null && (logLevel.getPriority() < myLogLevel.getPriority())) {
+    if (!isHeaderApplicable(tag, pkg, pid, logLevel)) {
       return false;
     }
 
-    if (myMessagePattern != null && !myMessagePattern.matcher(message).find()) {
+    // Matched last, as unlike the other fields the message text is different for every line
+    return myMessagePattern == null || myMessagePattern.matcher(message).find();
+  }
+
+  @Override
+  public boolean isHeaderApplicable(@NotNull String tag, @NotNull String pkg, int pid, @NotNull Log.LogLevel logLevel) {
+    if (myLogLevel != null && (logLevel.getPriority() < myLogLevel.getPriority())) {
       return false;
     }
 
-    if (myTagPattern != null && !myTagPattern.matcher(tag).find()) {
+    // TODO: If we're always checking against an int pid anyway, why let myPid be a string?
+    if ((myPid != null && !myPid.isEmpty()) && !myPid.equals(Integer.toString(pid))) {
       return false;
     }
 
-    if (myPkgNamePattern != null && !myPkgNamePattern.matcher(pkg).find()) {
+    if (myTagPattern != null && !matches(myTagPattern, myTagMatches, tag)) {
       return false;
     }
 
-    // TODO: If we're always checking against an int pid anyway, why let myPid be a string?
-    if ((myPid != null && !myPid.isEmpty()) && !myPid.equals(Integer.toString(pid))) {
+    if (myPkgNamePattern != null && !matches(myPkgNamePattern, myPkgNameMatches, pkg)) {
       return false;
     }
 
     return true;
   }
 
+  /**
+   * Tags and package names repeat across nearly all messages, so the result of matching each distinct value is remembered rather than
+   * running the pattern again for every message.
+   */
+  private static boolean matches(@NotNull Pattern pattern, @NotNull Map<String, Boolean> matches, @NotNull String value) {
+    Boolean match = matches.get(value);
+    if (match == null) {
+      match = pattern.matcher(value).find();
+      if (matches.size() < MAX_CACHED_MATCHES) {
+        matches.put(value, match);
+      }
+    }
+    return match;
+  }
+
   @Override
   @NotNull
   public String getName() {
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.android.tools.idea.logcat;
+
+import com.android.ddmlib.Log.LogLevel;
+import com.android.ddmlib.logcat.LogCatHeader;
+import com.android.ddmlib.logcat.LogCatMessage;
+import com.android.ddmlib.logcat.LogCatTimestamp;
+import com.google.common.annotations.VisibleForTesting;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The backlog of logcat messages received from a device, bounded by the total length of the messages.
+ * <p>
+ * Messages are stored in fixed-size chunks of primitive arrays, with their tags and app names interned and their text encoded as UTF-8,
+ * rather than as one {@link LogCatMessage} object graph per line. Appending a message and evicting the oldest one are O(1), and evicted
+ * chunks are dropped as a whole. Only the tags and app names of the buffered messages stay interned, those of the messages of an evicted
+ * chunk are released along with it.
+ * <p>
+ * This class is not thread safe, callers have to guard {@link #addMessage(LogCatMessage)} and {@link #iterator()}. The iterators
+ * returned by the latter however only read what was stored when they were created, so they can be consumed on another thread while
+ * messages keep being added.
+ */
+final class LogcatBuffer implements Iterable<LogCatMessage> {
+  @VisibleForTesting static final int MESSAGES_PER_CHUNK = 4096;
+
+  private static final int INITIAL_CHUNK_DATA_SIZE = 16 * 1024;
+  private static final LogLevel[] LOG_LEVELS = LogLevel.values();
+
+  private final int myMaxSize;
+  private final ArrayDeque<Chunk> myChunks = new ArrayDeque<>();
+  // Tags and app names of the messages in myChunks, rebuilt whenever a chunk is evicted.
+  private final Map<String, String> myInternedStrings = new HashMap<>();
+  // Index of the oldest message within the first chunk.
+  private int myFirstMessageIndex;
+  private int myMessageCount;
+  private int mySize;
+
+  /**
+   * @param maxSize the maximum total length of the buffered messages, after which the oldest messages are evicted.
+   */
+  LogcatBuffer(int maxSize) {
+    myMaxSize = maxSize;
+  }
+
+  void addMessage(@NotNull LogCatMessage message) {
+    Chunk chunk = myChunks.peekLast();
+    if (chunk == null || chunk.myCount == MESSAGES_PER_CHUNK) {
+      chunk = new Chunk();
+      myChunks.addLast(chunk);
+    }
+    LogCatHeader header = message.getHeader();
+    chunk.add(header, intern(header.getAppName()), intern(header.getTag()), message.getMessage());
+    myMessageCount++;
+    mySize += message.getMessage().length();
+
+    while (mySize > myMaxSize && myMessageCount > 0) {
+      removeFirstMessage();
+    }
+  }
+
+  boolean isEmpty() {
+    return myMessageCount == 0;
+  }
+
+  int getMessageCount() {
+    return myMessageCount;
+  }
+
+  /**
+   * Returns an iterator over the messages buffered at the time of the call, oldest first.
+   */
+  @NotNull
+  @Override
+  public Iterator<LogCatMessage> iterator() {
+    List<Chunk> chunks = new ArrayList<>(myChunks);
+    int firstMessageIndex = myFirstMessageIndex;
+    int lastChunkCount = chunks.isEmpty() ? 0 : chunks.get(chunks.size() - 1).myCount;
+
+    return new Iterator<LogCatMessage>() {
+      private int myChunkIndex = 0;
+      private int myMessageIndex = firstMessageIndex;
+
+      @Override
+      public boolean hasNext() {
+        return myChunkIndex < chunks.size() - 1 || (myChunkIndex == chunks.size() - 1 && myMessageIndex < lastChunkCount);
+      }
+
+      @Override
+      public LogCatMessage next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        LogCatMessage message = chunks.get(myChunkIndex).get(myMessageIndex++);
+        if (myMessageIndex == MESSAGES_PER_CHUNK) {
+          myChunkIndex++;
+          myMessageIndex = 0;
+        }
+        return message;
+      }
+    };
+  }
+
+  private void removeFirstMessage() {
+    Chunk chunk = myChunks.getFirst();
+    mySize -= chunk.myMessageLengths[myFirstMessageIndex++];
+    myMessageCount--;
+    if (myFirstMessageIndex == chunk.myCount) {
+      myChunks.removeFirst();
+      myFirstMessageIndex = 0;
+      rebuildInternedStrings();
+    }
+  }
+
+  /**
+   * Drops the strings that are only used by evicted messages, so that devices logging ever changing tags don't grow the map forever.
+   * This walks all the buffered messages but only runs once per {@link #MESSAGES_PER_CHUNK} evicted messages.
+   */
+  private void rebuildInternedStrings() {
+    myInternedStrings.clear();
+    for (Chunk chunk : myChunks) {
+      for (int i = 0; i < chunk.myCount; i++) {
+        myInternedStrings.put(chunk.myAppNames[i], chunk.myAppNames[i]);
+        myInternedStrings.put(chunk.myTags[i], chunk.myTags[i]);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  int getInternedStringCount() {
+    return myInternedStrings.size();
+  }
+
+  @NotNull
+  private String intern(@NotNull String string) {
+    return myInternedStrings.computeIfAbsent(string, s -> s);
+  }
+
+  /**
+   * Up to {@link #MESSAGES_PER_CHUNK} messages, stored column by column. Only the message at {@link #myCount} and beyond are ever
+   * written to, so readers of earlier messages don't need to synchronize with the writer.
+   */
+  private static final class Chunk {
+    private final byte[] myLevels = new byte[MESSAGES_PER_CHUNK];
+    private final int[] myPids = new int[MESSAGES_PER_CHUNK];
+    private final int[] myTids = new int[MESSAGES_PER_CHUNK];
+    private final String[] myAppNames = new String[MESSAGES_PER_CHUNK];
+    private final String[] myTags = new String[MESSAGES_PER_CHUNK];
+    private final long[] myEpochSeconds = new long[MESSAGES_PER_CHUNK];
+    private final int[] myNanos = new int[MESSAGES_PER_CHUNK];
+    // End offset of each message in myData.
+    private final int[] myMessageEnds = new int[MESSAGES_PER_CHUNK];
+    // Length of each message in chars, as accounted against the maximum size of the buffer.
+    private final int[] myMessageLengths = new int[MESSAGES_PER_CHUNK];
+    // UTF-8 text of all the messages. Volatile as it is replaced by a larger copy when it fills up.
+    private volatile byte[] myData = new byte[INITIAL_CHUNK_DATA_SIZE];
+    // Timestamps of devices that don't support the epoch format, only allocated when such a message is added.
+    @Nullable private volatile LogCatTimestamp[] myLegacyTimestamps;
+    private int myCount;
+
+    @SuppressWarnings("deprecation")
+    void add(@NotNull LogCatHeader header, @NotNull String appName, @NotNull String tag, @NotNull String message) {
+      int index = myCount;
+      myLevels[index] = (byte)header.getLogLevel().ordinal();
+      myPids[index] = header.getPid();
+      myTids[index] = header.getTid();
+      myAppNames[index] = appName;
+      myTags[index] = tag;
+
+      Instant timestamp = header.getTimestampInstant();
+      if (timestamp != null) {
+        myEpochSeconds[index] = timestamp.getEpochSecond();
+        myNanos[index] = timestamp.getNano();
+      }
+      else {
+        LogCatTimestamp[] legacyTimestamps = myLegacyTimestamps;
+        if (legacyTimestamps == null) {
+          legacyTimestamps = new LogCatTimestamp[MESSAGES_PER_CHUNK];
+          myLegacyTimestamps = legacyTimestamps;
+        }
+        legacyTimestamps[index] = header.getTimestamp();
+      }
+
+      byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+      int start = index == 0 ? 0 : myMessageEnds[index - 1];
+      byte[] data = myData;
+      if (start + bytes.length > data.length) {
+        data = Arrays.copyOf(data, Math.max(data.length * 2, start + bytes.length));
+      }
+      System.arraycopy(bytes, 0, data, start, bytes.length);
+      myData = data;
+      myMessageEnds[index] = start + bytes.length;
+      myMessageLengths[index] = message.length();
+      myCount++;
+    }
+
+    @NotNull
+    @SuppressWarnings("deprecation")
+    LogCatMessage get(int index) {
+      LogLevel level = LOG_LEVELS[myLevels[index]];
+      LogCatTimestamp[] legacyTimestamps = myLegacyTimestamps;
+      LogCatHeader header = legacyTimestamps != null && legacyTimestamps[index] != null
+                            ? new LogCatHeader(level, myPids[index], myTids[index], myAppNames[index], myTags[index],
+                                               legacyTimestamps[index])
+                            : new LogCatHeader(level, myPids[index], myTids[index], myAppNames[index], myTags[index],
+                                               Instant.ofEpochSecond(myEpochSeconds[index], myNanos[index]));
+
+      int start = index == 0 ? 0 : myMessageEnds[index - 1];
+      String message = new String(myData, start, myMessageEnds[index] - start, StandardCharsets.UTF_8);
+      return new LogCatMessage(header, message);
+    }
+  }
+}
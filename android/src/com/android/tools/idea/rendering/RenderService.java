@@ -55,11 +55,14 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import org.jetbrains.android.facet.AndroidFacet;
@@ -86,6 +89,37 @@ public class RenderService implements Disposable {
   private static final AtomicReference<Thread> ourRenderingThread = new AtomicReference<>();
   private static ExecutorService ourRenderingExecutor;
   private static final AtomicInteger ourTimeoutExceptionCounter = new AtomicInteger(0);
+  /** Sequence used to keep the FIFO order between render actions with the same {@link RenderingPriority} */
+  private static final AtomicLong ourRenderActionSequence = new AtomicLong(0);
+
+  /**
+   * Maximum number of pending actions, submitted before it, that a {@link RenderingPriority#HIGH} action can overtake. This bounds how
+   * long a {@link RenderingPriority#NORMAL} action waits when high priority actions keep being submitted.
+   */
+  @VisibleForTesting
+  static final int MAX_HIGH_PRIORITY_OVERTAKES = 32;
+
+  /**
+   * Priority of the actions submitted to the render thread. Actions with the same priority run in the order they were submitted.
+   */
+  public enum RenderingPriority {
+    /**
+     * Runs before any other pending action. Only used by actions that explicitly ask for it, like the synchronous actions of
+     * {@link RenderService#runRenderAction(Callable)}, whose callers block waiting for them with a timeout.
+     */
+    IMMEDIATE,
+    /**
+     * Used for renders of surfaces that are currently visible to the user. Runs before the pending {@link #NORMAL} actions, unless
+     * they were submitted more than {@link RenderService#MAX_HIGH_PRIORITY_OVERTAKES} actions earlier.
+     */
+    HIGH,
+    /**
+     * Default priority, also used for the actions submitted without one, like clean-up and dispose actions. Those run after every action
+     * already pending, e.g. the renders of the session being disposed, and can only be overtaken by a bounded number of
+     * {@link #HIGH} actions.
+     */
+    NORMAL
+  }
 
   /**
    * {@link Key} used to keep the RenderService instance project association. They key is also used as synchronization object to guard the
@@ -103,16 +137,13 @@ public class RenderService implements Disposable {
   private final Project myProject;
 
   private static void innerInitializeRenderExecutor() {
-    ourRenderingExecutor = new ThreadPoolExecutor(1, 1,
-                             0, TimeUnit.MILLISECONDS,
-                             new LinkedBlockingQueue<>(),
-                             (Runnable r) -> {
-                               Thread renderingThread = new Thread(null, r, "Layoutlib Render Thread");
-                               renderingThread.setDaemon(true);
-                               ourRenderingThread.set(renderingThread);
-
-                               return renderingThread;
-                             });
+    ourRenderingExecutor = new RenderExecutor((Runnable r) -> {
+      Thread renderingThread = new Thread(null, r, "Layoutlib Render Thread");
+      renderingThread.setDaemon(true);
+      ourRenderingThread.set(renderingThread);
+
+      return renderingThread;
+    });
   }
 
   @TestOnly
@@ -150,6 +181,62 @@ public class RenderService implements Disposable {
     shutdownRenderExecutor();
   }
 
+  /**
+   * {@link Runnable} wrapper that allows the render thread queue to sort the pending actions by {@link RenderingPriority} and then
+   * by submission order.
+   */
+  private static final class PrioritizedRenderAction implements Runnable, Comparable<PrioritizedRenderAction> {
+    @NotNull private final Runnable myDelegate;
+    @NotNull private final RenderingPriority myPriority;
+    private final long mySequence = ourRenderActionSequence.getAndIncrement();
+
+    private PrioritizedRenderAction(@NotNull Runnable delegate, @NotNull RenderingPriority priority) {
+      myDelegate = delegate;
+      myPriority = priority;
+    }
+
+    @Override
+    public void run() {
+      myDelegate.run();
+    }
+
+    /**
+     * Position of this action in the queue, among the actions that are not {@link RenderingPriority#IMMEDIATE}. High priority actions
+     * are moved ahead of a bounded number of earlier actions, so the order of the queue never changes once the actions are in it.
+     */
+    private long getOrderKey() {
+      return myPriority == RenderingPriority.HIGH ? mySequence - MAX_HIGH_PRIORITY_OVERTAKES : mySequence;
+    }
+
+    @Override
+    public int compareTo(@NotNull PrioritizedRenderAction other) {
+      boolean isImmediate = myPriority == RenderingPriority.IMMEDIATE;
+      if (isImmediate != (other.myPriority == RenderingPriority.IMMEDIATE)) {
+        return isImmediate ? -1 : 1;
+      }
+      int orderComparison = Long.compare(getOrderKey(), other.getOrderKey());
+      return orderComparison != 0 ? orderComparison : Long.compare(mySequence, other.mySequence);
+    }
+  }
+
+  /**
+   * Single thread executor used to run all the layoutlib actions. Layoutlib keeps static and thread local state so all the actions
+   * must run in the same thread. Pending actions are sorted using their {@link RenderingPriority}, actions submitted without one are
+   * {@link RenderingPriority#NORMAL}.
+   */
+  private static final class RenderExecutor extends ThreadPoolExecutor {
+    private RenderExecutor(@NotNull ThreadFactory threadFactory) {
+      super(1, 1, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), threadFactory);
+    }
+
+    @Override
+    public void execute(@NotNull Runnable command) {
+      super.execute(command instanceof PrioritizedRenderAction
+                    ? command
+                    : new PrioritizedRenderAction(command, RenderingPriority.NORMAL));
+    }
+  }
+
   private static final String JDK_INSTALL_URL = "https://developer.android.com/preview/setup-sdk.html#java8";
 
   private final Object myCredential = new Object();
@@ -271,6 +358,8 @@ public class RenderService implements Disposable {
   /**
    * Runs a action that requires the rendering lock. Layoutlib is not thread safe so any rendering actions should be called using this
    * method.
+   * <p/>
+   * The action runs before any pending render, see {@link RenderingPriority#IMMEDIATE}.
    */
   public static <T> T runRenderAction(@NotNull Callable<T> callable) throws Exception {
     try {
@@ -286,7 +375,9 @@ public class RenderService implements Disposable {
         isFirstCall = false;
         timeout *= 2;
       }
-      T result = ourRenderingExecutor.submit(callable).get(timeout, TimeUnit.MILLISECONDS);
+      FutureTask<T> task = new FutureTask<>(callable);
+      ourRenderingExecutor.execute(new PrioritizedRenderAction(task, RenderingPriority.IMMEDIATE));
+      T result = task.get(timeout, TimeUnit.MILLISECONDS);
       // The executor seems to be taking tasks so reset the counter
       ourTimeoutExceptionCounter.set(0);
 
@@ -314,14 +405,27 @@ public class RenderService implements Disposable {
    */
   @NotNull
   public static <T> CompletableFuture<T> runAsyncRenderAction(@NotNull Supplier<T> callable) {
-    return CompletableFuture.supplyAsync(callable, ourRenderingExecutor);
+    return runAsyncRenderAction(callable, RenderingPriority.NORMAL);
+  }
+
+  /**
+   * Runs an action that requires the rendering lock. Layoutlib is not thread safe so any rendering actions should be called using this
+   * method.
+   * <p/>
+   * This method will run the passed action asynchronously and return a {@link CompletableFuture}. The action will be scheduled
+   * before any pending action with a lower {@link RenderingPriority}.
+   */
+  @NotNull
+  public static <T> CompletableFuture<T> runAsyncRenderAction(@NotNull Supplier<T> callable, @NotNull RenderingPriority priority) {
+    return CompletableFuture.supplyAsync(callable,
+                                         runnable -> ourRenderingExecutor.execute(new PrioritizedRenderAction(runnable, priority)));
   }
 
   /**
    * Runs an action that requires the rendering lock. Layoutlib is not thread safe so any rendering actions should be called using this
    * method.
    * <p/>
-   * This method will run the passed action asynchronously
+   * This method will run the passed action asynchronously, after the actions already pending, see {@link RenderingPriority#NORMAL}.
    */
   public static void runAsyncRenderAction(@NotNull Runnable runnable) {
     ourRenderingExecutor.execute(runnable);
@@ -429,6 +533,7 @@ public class RenderService implements Disposable {
     private boolean useHighQualityShadows = StudioFlags.NELE_RENDER_HIGH_QUALITY_SHADOW.get();
     private SessionParams.RenderingMode myRenderingMode = null;
     private boolean useTransparentBackground = false;
+    @NotNull private Supplier<RenderingPriority> myPriority = () -> RenderingPriority.NORMAL;
 
     private RenderTaskBuilder(@NotNull RenderService service,
                               @NotNull AndroidFacet facet,
@@ -551,6 +656,15 @@ public class RenderService implements Disposable {
       return this;
     }
 
+    /**
+     * @see RenderTask#setPriority(Supplier)
+     */
+    @NotNull
+    public RenderTaskBuilder withPriority(@NotNull Supplier<RenderingPriority> priority) {
+      myPriority = priority;
+      return this;
+    }
+
     /**
      * Builds a new {@link RenderTask}. The returned future always completes successfully but the value might be null if the RenderTask
      * can not be created.
@@ -629,6 +743,8 @@ public class RenderService implements Disposable {
             task.setRenderingMode(myRenderingMode);
           }
 
+          task.setPriority(myPriority);
+
           return task;
         } catch (IllegalStateException | IncorrectOperationException | AssertionError e) {
           // Ignore the exception if it was generated when the facet is being disposed (project is being closed)
@@ -152,6 +152,7 @@ public class RenderTask {
   private final float myDefaultQuality;
   @Nullable private IncludeReference myIncludedWithin;
   @NotNull private RenderingMode myRenderingMode = RenderingMode.NORMAL;
+  @NotNull private Supplier<RenderService.RenderingPriority> myPriority = () -> RenderService.RenderingPriority.NORMAL;
   private boolean mySetTransparentBackground = false;
   private boolean myShowDecorations = true;
   private boolean myShadowEnabled = true;
@@ -481,6 +482,21 @@ public class RenderTask {
     return this;
   }
 
+  /**
+   * Sets the {@link RenderService.RenderingPriority} used to schedule the render actions of this task in the render thread. The
+   * supplier is queried every time an action is submitted, as tasks are reused while the state they depend on changes. The default is
+   * {@link RenderService.RenderingPriority#NORMAL}.
+   *
+   * @param priority the supplier of the priority to be used
+   * @return this (such that chains of setters can be stringed together)
+   */
+  @SuppressWarnings("UnusedReturnValue")
+  @NotNull
+  public RenderTask setPriority(@NotNull Supplier<RenderService.RenderingPriority> priority) {
+    myPriority = priority;
+    return this;
+  }
+
   /**
    * Sets whether the rendering should include decorations such as a system bar, an
    * application bar etc depending on the SDK target and theme. The default is true.
@@ -766,7 +782,7 @@ public class RenderTask {
   /**
    * Executes the passed {@link Callable} as an async render action and keeps track of it. If {@link #dispose()} is called, the call will
    * wait until all the async actions have finished running.
-   * See {@link RenderService#runAsyncRenderAction(Supplier)}.
+   * See {@link RenderService#runAsyncRenderAction(Supplier, RenderService.RenderingPriority)}.
    */
   @VisibleForTesting
   @NotNull
@@ -776,7 +792,7 @@ public class RenderTask {
     }
 
     synchronized (myRunningFutures) {
-      CompletableFuture<V> newFuture = RenderService.runAsyncRenderAction(callable);
+      CompletableFuture<V> newFuture = RenderService.runAsyncRenderAction(callable, myPriority.get());
       myRunningFutures.add(newFuture);
       newFuture
         .whenCompleteAsync((result, ex) -> {
@@ -15,6 +15,7 @@
  */
 package com.android.tools.idea.res
 
+import com.android.ide.common.resources.ResourceVisitor
 import com.android.projectmodel.ExternalLibrary
 import com.android.projectmodel.ResourceFolder
 import com.android.tools.idea.concurrency.AndroidIoManager
@@ -26,6 +27,8 @@ import com.android.tools.idea.resources.aar.RESOURCE_CACHE_DIRECTORY
 import com.android.utils.concurrency.getAndUnwrap
 import com.google.common.cache.Cache
 import com.google.common.cache.CacheBuilder
+import com.google.common.cache.CacheStats
+import com.google.common.cache.RemovalCause
 import com.google.common.hash.Hashing
 import com.intellij.openapi.application.PathManager
 import com.intellij.openapi.components.ServiceManager
@@ -37,12 +40,33 @@ import java.nio.file.Paths
 import javax.annotation.concurrent.ThreadSafe
 
 /**
- * Cache of AAR resource repositories.
+ * Cache of AAR resource repositories. The cache is an application service, so repositories of AARs used by several open projects
+ * are shared between them.
+ *
+ * Each of the caches is bounded by the total number of resources of its repositories, see [MAX_CACHED_RESOURCES], and evicts the least
+ * recently used repositories beyond that. Hit, miss and eviction statistics are recorded, see [protoRepositoryStats] and
+ * [sourceRepositoryStats].
+ *
+ * Values are also softly referenced. A repository still used by an open project is strongly reachable and is never reclaimed that way,
+ * so soft references only let the garbage collector drop repositories no project uses anymore before the bound is reached, at the cost
+ * of loading them again, from the resource cache files on disk for source repositories, if they are needed again.
  */
 @ThreadSafe
 class AarResourceRepositoryCache private constructor() {
-  private val myProtoRepositories = CacheBuilder.newBuilder().softValues().build<Path, AarProtoResourceRepository>()
-  private val mySourceRepositories = CacheBuilder.newBuilder().softValues().build<ResourceFolder, AarSourceResourceRepository>()
+  private val myProtoRepositories = createCache<Path, AarProtoResourceRepository>()
+  private val mySourceRepositories = createCache<ResourceFolder, AarSourceResourceRepository>()
+
+  /**
+   * Hit, miss and eviction statistics of the proto resource repositories.
+   */
+  val protoRepositoryStats: CacheStats
+    get() = myProtoRepositories.stats()
+
+  /**
+   * Hit, miss and eviction statistics of the source resource repositories.
+   */
+  val sourceRepositoryStats: CacheStats
+    get() = mySourceRepositories.stats()
 
   /**
    * Returns a cached or a newly created source resource repository.
@@ -121,6 +145,43 @@ class AarResourceRepositoryCache private constructor() {
   }
 
   companion object {
+    /**
+     * Maximum total number of resources of the repositories kept by each of the caches. Can be overridden with the
+     * "android.aar.resource.repository.cache.resources" system property.
+     *
+     * The cache doesn't know which repositories are still used by the resource repositories of open projects, so evicting one of those
+     * makes the next request for it, e.g. on the next sync, create a second copy next to the one still in use. The default is therefore
+     * a few times the resources of the AARs a large project depends on, typically 50 to 100 thousand, so that several large projects
+     * sharing most of their dependencies fit, while repositories of libraries no open project uses anymore, e.g. older versions of a
+     * dependency or libraries of closed projects, get evicted once it is reached.
+     */
+    private val MAX_CACHED_RESOURCES = Integer.getInteger("android.aar.resource.repository.cache.resources", 300_000).toLong()
+
+    private val LOG = Logger.getInstance(AarResourceRepositoryCache::class.java)
+
+    private fun <K, T : AarResourceRepository> createCache(): Cache<K, T> {
+      return CacheBuilder.newBuilder()
+        .softValues()
+        .maximumWeight(MAX_CACHED_RESOURCES)
+        .weigher<K, T> { _, repository -> countResources(repository) }
+        .removalListener<K, T> { notification ->
+          if (notification.cause == RemovalCause.SIZE) {
+            LOG.debug("Evicted resource repository of ${notification.value?.libraryName} from the AAR resource repository cache")
+          }
+        }
+        .recordStats()
+        .build<K, T>()
+    }
+
+    private fun countResources(repository: AarResourceRepository): Int {
+      var count = 0
+      repository.accept {
+        count++
+        ResourceVisitor.VisitResult.CONTINUE
+      }
+      return count
+    }
+
     /**
      * Returns the cache.
      */
@@ -133,8 +194,7 @@ class AarResourceRepositoryCache private constructor() {
 
       if (libraryName != aarRepository.libraryName) {
         assert(false) { "Library name mismatch: $libraryName vs ${aarRepository.libraryName}" }
-        val logger = Logger.getInstance(AarResourceRepositoryCache::class.java)
-        logger.error(Exception("Library name mismatch: $libraryName vs ${aarRepository.libraryName}"))
+        LOG.error(Exception("Library name mismatch: $libraryName vs ${aarRepository.libraryName}"))
       }
 
       return aarRepository
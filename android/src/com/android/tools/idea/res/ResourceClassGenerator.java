@@ -23,10 +23,10 @@ import com.android.ide.common.resources.ResourceItem;
 import com.android.ide.common.resources.ResourceRepository;
 import com.android.resources.ResourceType;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.ModificationTracker;
 import gnu.trove.TIntArrayList;
 import gnu.trove.TObjectIntHashMap;
 import org.jetbrains.android.util.AndroidResourceUtil;
@@ -76,9 +76,11 @@ public final class ResourceClassGenerator {
     int getOrGenerateId(@NotNull ResourceReference resourceReference);
   }
 
-  private Map<ResourceType, TObjectIntHashMap<String>> myCache;
-  /** For int[] in styleables. The ints in styleables are stored in {@link #myCache}. */
-  private Map<String, TIntArrayList> myStyleableCache;
+  /**
+   * Per-type caches of the generated inner classes. An entry is dropped only when the resources of its type change in a way
+   * that affects the generated code, so that an edit of a single string does not regenerate e.g. {@code R.layout}.
+   */
+  private final Map<ResourceType, TypeCache> myCache = new EnumMap<>(ResourceType.class);
   @NotNull private final ResourceRepository myResources;
   @NotNull private final NumericIdProvider myIdProvider;
   @NotNull private final ResourceNamespace myNamespace;
@@ -105,7 +107,7 @@ public final class ResourceClassGenerator {
    * @param fqcn Fully qualified class name (as accepted by ClassLoader, or as returned by Class.getName())
    */
   @Nullable
-  public byte[] generate(String fqcn) {
+  public synchronized byte[] generate(String fqcn) {
     String className = fqcn.replace('.', '/');
 
     if (LOG.isDebugEnabled()) {
@@ -125,33 +127,37 @@ public final class ResourceClassGenerator {
         return null;
       }
 
-      cw.visitInnerClass(className, className.substring(0, index), typeName, ACC_PUBLIC + ACC_FINAL + ACC_STATIC);
-      if (myCache == null) {
-        myCache = Maps.newHashMap();
+      TypeCache typeCache = getTypeCache(type);
+      byte[] bytecode = typeCache.bytecode.get(className);
+      if (bytecode != null) {
+        return bytecode;
       }
+
+      cw.visitInnerClass(className, className.substring(0, index), typeName, ACC_PUBLIC + ACC_FINAL + ACC_STATIC);
+      // The same generator may be asked for R classes of several packages. The field values are shared between them.
+      boolean firstClass = typeCache.bytecode.isEmpty();
       if (type == ResourceType.STYLEABLE) {
-        if (myStyleableCache == null) {
-          myCache.put(ResourceType.STYLEABLE, new TObjectIntHashMap<>());
-          myStyleableCache = Maps.newHashMap();
-          generateStyleable(cw, className);
+        if (firstClass) {
+          generateStyleable(cw, className, typeCache);
         }
         else {
-          TObjectIntHashMap<String> indexFieldsCache = myCache.get(ResourceType.STYLEABLE);
-          assert indexFieldsCache != null;
-          generateFields(cw, indexFieldsCache);
-          generateIntArraysFromCache(cw, className);
+          generateFields(cw, typeCache.fields);
+          generateIntArraysFromCache(cw, className, typeCache.styleableArrays);
         }
       } else {
-        TObjectIntHashMap<String> typeCache = myCache.get(type);
-        if (typeCache == null) {
-          typeCache = new TObjectIntHashMap<>();
-          myCache.put(type, typeCache);
-          generateValuesForType(cw, type, typeCache);
+        if (firstClass) {
+          generateValuesForType(cw, type, typeCache.fields);
         }
         else {
-          generateFields(cw, typeCache);
+          generateFields(cw, typeCache.fields);
         }
       }
+
+      generateConstructor(cw);
+      cw.visitEnd();
+      bytecode = cw.toByteArray();
+      typeCache.bytecode.put(className, bytecode);
+      return bytecode;
     } else {
       // Default R class.
       for (ResourceType t : myResources.getResourceTypes(myNamespace)) {
@@ -166,6 +172,39 @@ public final class ResourceClassGenerator {
     return cw.toByteArray();
   }
 
+  /**
+   * Returns the cache for the given resource type, dropping the previously cached one if the resources of that type have changed
+   * since it was created.
+   */
+  @NotNull
+  private TypeCache getTypeCache(@NotNull ResourceType type) {
+    long modificationCount = myResources instanceof ModificationTracker ? ((ModificationTracker)myResources).getModificationCount() : 0;
+    TypeCache typeCache = myCache.get(type);
+    if (typeCache != null && typeCache.modificationCount != modificationCount) {
+      // Edits of resource values don't change the generated code, unless the type is a styleable, where the fields depend on
+      // the attributes declared in it.
+      if (typeCache.resourceNames != null && typeCache.resourceNames.equals(getResourceNames(type))) {
+        typeCache.modificationCount = modificationCount;
+      }
+      else {
+        if (LOG.isDebugEnabled()) {
+          LOG.debug(String.format("  regenerating %s classes", type.getName()));
+        }
+        typeCache = null;
+      }
+    }
+    if (typeCache == null) {
+      typeCache = new TypeCache(modificationCount, type == ResourceType.STYLEABLE ? null : getResourceNames(type));
+      myCache.put(type, typeCache);
+    }
+    return typeCache;
+  }
+
+  @NotNull
+  private Set<String> getResourceNames(@NotNull ResourceType type) {
+    return new HashSet<>(myResources.getResourceNames(myNamespace, type));
+  }
+
   private void generateValuesForType(@NotNull ClassWriter cw, @NotNull ResourceType resType, @NotNull TObjectIntHashMap<String> cache) {
     Collection<String> resourceNames = myResources.getResourceNames(myNamespace, resType);
     for (String name : resourceNames) {
@@ -188,13 +227,13 @@ public final class ResourceClassGenerator {
     return Lists.transform(dv.getAllAttributes(), ResourceValue::asReference);
   }
 
-  private void generateStyleable(@NotNull ClassWriter cw, String className) {
+  private void generateStyleable(@NotNull ClassWriter cw, String className, @NotNull TypeCache typeCache) {
     if (LOG.isDebugEnabled()) {
       LOG.debug(String.format("generateStyleable(%s)", anonymizeClassName(className)));
     }
     boolean debug = LOG.isDebugEnabled() && isPublicClass(className);
 
-    TObjectIntHashMap<String> indexFieldsCache = myCache.get(ResourceType.STYLEABLE);
+    TObjectIntHashMap<String> indexFieldsCache = typeCache.fields;
     Collection<String> styleableNames = myResources.getResourceNames(myNamespace, ResourceType.STYLEABLE);
     List<MergedStyleable> mergedStyleables = new ArrayList<>(styleableNames.size());
 
@@ -242,7 +281,7 @@ public final class ResourceClassGenerator {
       for (ResourceReference attr : mergedStyleable.attrs) {
         values.add(myIdProvider.getOrGenerateId(attr));
       }
-      myStyleableCache.put(fieldName, values);
+      typeCache.styleableArrays.put(fieldName, values);
       generateArrayInitialization(mv, className, fieldName, values);
     }
     mv.visitInsn(RETURN);
@@ -261,16 +300,17 @@ public final class ResourceClassGenerator {
     cw.visitField(ACC_PUBLIC + ACC_FINAL + ACC_STATIC, name, "I", null, value).visitEnd();
   }
 
-  private void generateIntArraysFromCache(@NotNull ClassWriter cw, String className) {
+  private static void generateIntArraysFromCache(@NotNull ClassWriter cw, String className,
+                                                 @NotNull Map<String, TIntArrayList> styleableArrays) {
     // Generate the field declarations.
-    for (String name : myStyleableCache.keySet()) {
+    for (String name : styleableArrays.keySet()) {
       cw.visitField(ACC_PUBLIC + ACC_FINAL + ACC_STATIC, name, "[I", null, null);
     }
 
     // Generate class initializer block to initialize the arrays declared above.
     MethodVisitor mv = cw.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
     mv.visitCode();
-    myStyleableCache.forEach((arrayName, values) -> {
+    styleableArrays.forEach((arrayName, values) -> {
       generateArrayInitialization(mv, className, arrayName, values);
     });
     mv.visitInsn(RETURN);
@@ -351,6 +391,23 @@ public final class ResourceClassGenerator {
     }
   }
 
+  private static final class TypeCache {
+    /** Modification count of the repository the cached classes are up to date with. */
+    long modificationCount;
+    /** Names of the resources the fields were generated from, or null for styleables which always have to be regenerated. */
+    @Nullable final Set<String> resourceNames;
+    @NotNull final TObjectIntHashMap<String> fields = new TObjectIntHashMap<>();
+    /** For int[] in styleables. The ints in styleables are stored in {@link #fields}. */
+    @NotNull final Map<String, TIntArrayList> styleableArrays = new HashMap<>();
+    /** Generated bytecode keyed by the internal class name. */
+    @NotNull final Map<String, byte[]> bytecode = new HashMap<>();
+
+    private TypeCache(long modificationCount, @Nullable Set<String> resourceNames) {
+      this.modificationCount = modificationCount;
+      this.resourceNames = resourceNames;
+    }
+  }
+
   private static final class MergedStyleable {
     @NotNull final String name;
     @NotNull final LinkedHashSet<ResourceReference> attrs;
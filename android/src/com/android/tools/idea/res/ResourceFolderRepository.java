@@ -108,6 +108,7 @@ import com.intellij.psi.xml.XmlProcessingInstruction;
 import com.intellij.psi.xml.XmlTag;
 import com.intellij.psi.xml.XmlText;
 import com.intellij.util.concurrency.EdtExecutorService;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -128,8 +129,10 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import javax.annotation.concurrent.GuardedBy;
 import org.jetbrains.android.facet.AndroidFacet;
 import org.jetbrains.android.sdk.AndroidTargetData;
@@ -198,6 +201,8 @@ public final class ResourceFolderRepository extends LocalResourceRepository impl
   // Statistics of the initial repository loading.
   private int myNumXmlFilesLoadedInitially; // Doesn't count files that were explicitly skipped.
   private int myNumXmlFilesLoadedInitiallyFromSources;
+  private int myNumXmlFilesPrefetchedInitially;
+  private int myNumPrefetchedXmlFilesParsedInitially;
 
   @SuppressWarnings("InstanceGuardedByStatic")
   @GuardedBy("ITEM_MAP_LOCK")
@@ -350,6 +355,16 @@ public final class ResourceFolderRepository extends LocalResourceRepository impl
     return myNumXmlFilesLoadedInitiallyFromSources;
   }
 
+  @TestOnly
+  int getNumXmlFilesPrefetchedInitially() {
+    return myNumXmlFilesPrefetchedInitially;
+  }
+
+  @TestOnly
+  int getNumPrefetchedXmlFilesParsedInitially() {
+    return myNumPrefetchedXmlFilesParsedInitially;
+  }
+
   @Nullable
   private PsiFile ensureValid(@NotNull PsiFile psiFile) {
     if (psiFile.isValid()) {
@@ -1952,6 +1967,8 @@ public final class ResourceFolderRepository extends LocalResourceRepository impl
     @Nullable private PathString myLastPathString;
 
     @NotNull Set<VirtualFile> myFilesToReparseAsPsi = new HashSet<>();
+    /** Contents of the XML files of the folder being scanned, read in parallel by {@link #prefetchParsableFiles}. */
+    @NotNull private final Map<VirtualFile, byte[]> myPrefetchedContents = new ConcurrentHashMap<>();
     private final FileDocumentManager myFileDocumentManager;
 
     Loader(@NotNull ResourceFolderRepository repository, @Nullable ResourceFolderRepositoryCachingData cachingData) {
@@ -2042,6 +2059,7 @@ public final class ResourceFolderRepository extends LocalResourceRepository impl
             FolderInfo folderInfo = FolderInfo.create(folderName, myFolderConfigCache);
             if (folderInfo != null) {
               RepositoryConfiguration configuration = getConfiguration(myRepository, folderInfo.configuration);
+              List<VirtualFile> filesToLoad = new ArrayList<>();
               for (VirtualFile file : subDir.getChildren()) {
                 if (file.getName().startsWith(".")) {
                   continue; // Skip file with the name starting with a dot.
@@ -2060,6 +2078,11 @@ public final class ResourceFolderRepository extends LocalResourceRepository impl
                   continue;
                 }
 
+                filesToLoad.add(file);
+              }
+
+              prefetchParsableFiles(filesToLoad, folderInfo);
+              for (VirtualFile file : filesToLoad) {
                 PathString pathString = FileExtensions.toPathString(file);
                 myLastVirtualFile = file;
                 myLastPathString = pathString;
@@ -2074,6 +2097,9 @@ public final class ResourceFolderRepository extends LocalResourceRepository impl
                   // it is designed to work with potentially malformed files in the middle of editing.
                   myFilesToReparseAsPsi.add(file);
                 }
+                finally {
+                  myPrefetchedContents.remove(file);
+                }
               }
             }
           }
@@ -2105,6 +2131,31 @@ public final class ResourceFolderRepository extends LocalResourceRepository impl
       }
     }
 
+    /**
+     * Reads the contents of the files among the given ones that {@link #loadResourceFile} parses in parallel, so that parsing them does
+     * not wait on disk IO one file at a time. Other files, e.g. drawables, are never read by the loader, so they are not prefetched.
+     * Parsing itself stays sequential because the loader state is not thread safe.
+     */
+    private void prefetchParsableFiles(@NotNull List<VirtualFile> files, @NotNull FolderInfo folderInfo) {
+      List<VirtualFile> parsableFiles = files.stream().filter(file -> isParsableFile(file, folderInfo)).collect(Collectors.toList());
+      if (parsableFiles.size() < 2) {
+        return; // Nothing to gain from reading in parallel.
+      }
+
+      CompletableFuture<?>[] futures = parsableFiles.stream()
+        .map(file -> CompletableFuture.runAsync(() -> {
+          try {
+            myPrefetchedContents.put(file, file.contentsToByteArray());
+          }
+          catch (IOException ignored) {
+            // The file will be read again by getInputStream, which reports the error.
+          }
+        }, PooledThreadExecutor.INSTANCE))
+        .toArray(CompletableFuture<?>[]::new);
+      CompletableFuture.allOf(futures).join();
+      myRepository.myNumXmlFilesPrefetchedInitially += myPrefetchedContents.size();
+    }
+
     private void loadResourceFile(
         @NotNull PathString file, @NotNull FolderInfo folderInfo, @NotNull RepositoryConfiguration configuration) {
       if (folderInfo.resourceType == null) {
@@ -2143,7 +2194,12 @@ public final class ResourceFolderRepository extends LocalResourceRepository impl
       if (virtualFile == null) {
         throw new NoSuchFileException(file.getNativePath());
       }
-      return virtualFile.getInputStream();
+      byte[] contents = myPrefetchedContents.remove(virtualFile);
+      if (contents == null) {
+        return virtualFile.getInputStream();
+      }
+      ++myRepository.myNumPrefetchedXmlFilesParsedInitially;
+      return new ByteArrayInputStream(contents);
     }
 
     @Nullable
@@ -21,6 +21,7 @@ import com.android.ddmlib.Client;
 import com.android.ddmlib.IDevice;
 import com.android.ddmlib.NullOutputReceiver;
 import com.android.sdklib.AndroidVersion;
+import com.android.tools.idea.flags.StudioFlags;
 import com.android.tools.idea.run.tasks.DebugConnectorTask;
 import com.android.tools.idea.run.tasks.LaunchResult;
 import com.android.tools.idea.run.tasks.LaunchTask;
@@ -30,6 +31,7 @@ import com.android.tools.idea.run.util.LaunchUtils;
 import com.android.tools.idea.run.util.ProcessHandlerLaunchStatus;
 import com.android.tools.idea.run.util.SwapInfo;
 import com.android.tools.idea.stats.RunStats;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.wireless.android.sdk.stats.LaunchTaskDetail;
 import com.intellij.execution.filters.HyperlinkInfo;
@@ -40,9 +42,11 @@ import com.intellij.notification.NotificationType;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -53,9 +57,11 @@ import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.BiConsumer;
+import java.util.function.DoubleConsumer;
 import java.util.stream.Collectors;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -159,59 +165,34 @@ public class LaunchTaskRunner extends Task.Backgroundable {
         }
       }
 
+      if (devices.size() > 1 && StudioFlags.CONCURRENT_MULTI_DEVICE_LAUNCH.get()) {
+        // Create all the launch tasks up front, as the tasks of each device are then run on a different thread.
+        List<List<LaunchTask>> launchTasksPerDevice = new ArrayList<>(devices.size());
+        for (IDevice device : devices) {
+          List<LaunchTask> launchTasks = getLaunchTasks(device, launchStatus, consolePrinter);
+          if (launchTasks == null) {
+            return;
+          }
+          launchTasksPerDevice.add(launchTasks);
+        }
+        runLaunchTasksConcurrently(devices, launchTasksPerDevice, indicator, launchStatus, consolePrinter, destroyProcessOnCancellation);
+        return;
+      }
+
       // Perform launch tasks for each device.
       for (int deviceIndex = 0; deviceIndex < devices.size(); deviceIndex++) {
         IDevice device = devices.get(deviceIndex);
-        List<LaunchTask> launchTasks = null;
-        try {
-          myLaunchTasksProvider.fillStats(myStats);
-          launchTasks = myLaunchTasksProvider.getTasks(device, launchStatus, consolePrinter);
-        }
-        catch (com.intellij.execution.ExecutionException e) {
-          launchStatus.terminateLaunch(e.getMessage(), !isSwap());
-          return;
-        }
-        catch (IllegalStateException e) {
-          launchStatus.terminateLaunch(e.getMessage(), !isSwap());
-          Logger.getInstance(LaunchTaskRunner.class).error(e);
+        List<LaunchTask> launchTasks = getLaunchTasks(device, launchStatus, consolePrinter);
+        if (launchTasks == null) {
           return;
         }
 
-        // This totalDuration and elapsed step count is used only for showing a progress bar.
-        int totalDuration = getTotalDuration(launchTasks, debugSessionTask);
-        int elapsed = 0;
-        for (LaunchTask task : launchTasks) {
-          if (!checkIfLaunchIsAliveAndTerminateIfCancelIsRequested(indicator, launchStatus, destroyProcessOnCancellation)) {
-            return;
-          }
-
-          LaunchTaskDetail.Builder details = myStats.beginLaunchTask(task);
-          indicator.setText(task.getDescription());
-          LaunchResult result = task.run(myLaunchInfo.executor, device, launchStatus, consolePrinter);
-          myOnFinished.addAll(result.onFinishedCallbacks());
-          boolean success = result.getSuccess();
-          myStats.endLaunchTask(task, details, success);
-          if (!success) {
-            myErrorNotificationListener = result.getNotificationListener();
-            myError = result.getError();
-            launchStatus.terminateLaunch(result.getConsoleError(), !isSwap());
-
-            // Append a footer hyperlink, if one was provided.
-            if (result.getConsoleHyperlinkInfo() != null) {
-              myConsoleConsumer.accept(result.getConsoleHyperlinkText() + "\n",
-                                       result.getConsoleHyperlinkInfo());
-            }
-
-            // Show the tool window when we have an error.
-            RunContentManager.getInstance(myProject).toFrontRunContent(myLaunchInfo.executor, myProcessHandler);
-
-            myStats.setErrorId(result.getErrorId());
-            return;
-          }
-
-          // Update progress.
-          elapsed += task.getDuration();
-          indicator.setFraction((double)(elapsed / totalDuration + deviceIndex) / devices.size());
+        int completedDevices = deviceIndex;
+        boolean success = runLaunchTasks(device, launchTasks, debugSessionTask, indicator, null,
+                                         fraction -> indicator.setFraction((fraction + completedDevices) / devices.size()),
+                                         launchStatus, consolePrinter, destroyProcessOnCancellation);
+        if (!success) {
+          return;
         }
 
         // A debug session task should be performed at last.
@@ -225,6 +206,171 @@ public class LaunchTaskRunner extends Task.Backgroundable {
     }
   }
 
+  /**
+   * Returns the launch tasks to run on the given device, or null if they couldn't be created, in which case the launch is terminated.
+   */
+  @Nullable
+  private List<LaunchTask> getLaunchTasks(@NotNull IDevice device,
+                                          @NotNull LaunchStatus launchStatus,
+                                          @NotNull ConsolePrinter consolePrinter) {
+    try {
+      myLaunchTasksProvider.fillStats(myStats);
+      return myLaunchTasksProvider.getTasks(device, launchStatus, consolePrinter);
+    }
+    catch (com.intellij.execution.ExecutionException e) {
+      launchStatus.terminateLaunch(e.getMessage(), !isSwap());
+      return null;
+    }
+    catch (IllegalStateException e) {
+      launchStatus.terminateLaunch(e.getMessage(), !isSwap());
+      Logger.getInstance(LaunchTaskRunner.class).error(e);
+      return null;
+    }
+  }
+
+  /**
+   * Runs the launch tasks of all the devices at the same time, each device on its own pooled thread. A device whose tasks fail is
+   * detached from the launch while the other devices carry on, and the launch is only terminated once the tasks of every device have
+   * failed. Cancelling the launch stops the tasks of all the devices.
+   */
+  @VisibleForTesting
+  void runLaunchTasksConcurrently(@NotNull List<IDevice> devices,
+                                  @NotNull List<List<LaunchTask>> launchTasksPerDevice,
+                                  @NotNull ProgressIndicator indicator,
+                                  @NotNull LaunchStatus launchStatus,
+                                  @NotNull ConsolePrinter consolePrinter,
+                                  boolean destroyProcessOnCancellation) {
+    double[] deviceFractions = new double[devices.size()];
+    List<Future<Boolean>> futures = new ArrayList<>(devices.size());
+    for (int deviceIndex = 0; deviceIndex < devices.size(); deviceIndex++) {
+      IDevice device = devices.get(deviceIndex);
+      List<LaunchTask> launchTasks = launchTasksPerDevice.get(deviceIndex);
+      int index = deviceIndex;
+      DoubleConsumer progress = fraction -> {
+        synchronized (deviceFractions) {
+          deviceFractions[index] = fraction;
+          indicator.setFraction(Arrays.stream(deviceFractions).sum() / devices.size());
+        }
+      };
+      futures.add(AppExecutorUtil.getAppExecutorService().submit(() -> {
+        boolean[] success = new boolean[1];
+        ProgressManager.getInstance().executeProcessUnderProgress(
+          () -> success[0] = runLaunchTasks(device, launchTasks, null, indicator, device.getName(), progress, launchStatus, consolePrinter,
+                                            destroyProcessOnCancellation),
+          indicator);
+        return success[0];
+      }));
+    }
+
+    int failedDevices = 0;
+    for (Future<Boolean> future : futures) {
+      try {
+        if (!future.get()) {
+          failedDevices++;
+        }
+      }
+      catch (InterruptedException e) {
+        // Don't leave the tasks of the other devices running behind a launch that is being terminated.
+        for (Future<Boolean> remaining : futures) {
+          remaining.cancel(true);
+        }
+        Thread.currentThread().interrupt();
+        launchStatus.terminateLaunch("Interrupted while launching", destroyProcessOnCancellation);
+        return;
+      }
+      catch (ExecutionException e) {
+        Logger.getInstance(LaunchTaskRunner.class).error(e.getCause());
+        failedDevices++;
+      }
+    }
+
+    if (failedDevices == devices.size() && !launchStatus.isLaunchTerminated()) {
+      launchStatus.terminateLaunch(String.format("Launch failed on all %d devices.", devices.size()), !isSwap());
+    }
+  }
+
+  /**
+   * Runs the given launch tasks on a device, reporting the progress of the device through {@code progress}.
+   *
+   * @param deviceName the name to prefix progress texts and errors with when several devices are launched at the same time, or null when
+   *                   launching one device at a time. In the latter case a failed task terminates the whole launch, otherwise only the
+   *                   failed device is detached from it.
+   * @return true if all the tasks succeeded, false otherwise.
+   */
+  private boolean runLaunchTasks(@NotNull IDevice device,
+                                 @NotNull List<LaunchTask> launchTasks,
+                                 @Nullable DebugConnectorTask debugSessionTask,
+                                 @NotNull ProgressIndicator indicator,
+                                 @Nullable String deviceName,
+                                 @NotNull DoubleConsumer progress,
+                                 @NotNull LaunchStatus launchStatus,
+                                 @NotNull ConsolePrinter consolePrinter,
+                                 boolean destroyProcessOnCancellation) {
+    // This totalDuration and elapsed step count is used only for showing a progress bar.
+    int totalDuration = getTotalDuration(launchTasks, debugSessionTask);
+    int elapsed = 0;
+    for (LaunchTask task : launchTasks) {
+      if (!checkIfLaunchIsAliveAndTerminateIfCancelIsRequested(indicator, launchStatus, destroyProcessOnCancellation)) {
+        return false;
+      }
+
+      LaunchTaskDetail.Builder details;
+      synchronized (myStats) {
+        details = myStats.beginLaunchTask(task);
+      }
+      indicator.setText(deviceName == null ? task.getDescription() : deviceName + ": " + task.getDescription());
+      LaunchResult result = task.run(myLaunchInfo.executor, device, launchStatus, consolePrinter);
+      boolean success = result.getSuccess();
+      synchronized (this) {
+        myOnFinished.addAll(result.onFinishedCallbacks());
+      }
+      synchronized (myStats) {
+        myStats.endLaunchTask(task, details, success);
+      }
+      if (!success) {
+        onLaunchTaskFailed(device, result, deviceName, launchStatus, consolePrinter);
+        return false;
+      }
+
+      // Update progress.
+      elapsed += task.getDuration();
+      progress.accept(totalDuration == 0 ? 1 : (double)elapsed / totalDuration);
+    }
+    return true;
+  }
+
+  private synchronized void onLaunchTaskFailed(@NotNull IDevice device,
+                                               @NotNull LaunchResult result,
+                                               @Nullable String deviceName,
+                                               @NotNull LaunchStatus launchStatus,
+                                               @NotNull ConsolePrinter consolePrinter) {
+    // Only the first failure is reported through the notification and stats.
+    if (myError == null) {
+      myErrorNotificationListener = result.getNotificationListener();
+      myError = result.getError();
+      myStats.setErrorId(result.getErrorId());
+    }
+
+    if (deviceName == null) {
+      launchStatus.terminateLaunch(result.getConsoleError(), !isSwap());
+    }
+    else {
+      consolePrinter.stderr(deviceName + ": " + result.getConsoleError());
+      if (myProcessHandler instanceof AndroidProcessHandler) {
+        ((AndroidProcessHandler)myProcessHandler).detachDevice(device);
+      }
+    }
+
+    // Append a footer hyperlink, if one was provided.
+    if (result.getConsoleHyperlinkInfo() != null) {
+      myConsoleConsumer.accept(result.getConsoleHyperlinkText() + "\n",
+                               result.getConsoleHyperlinkInfo());
+    }
+
+    // Show the tool window when we have an error.
+    RunContentManager.getInstance(myProject).toFrontRunContent(myLaunchInfo.executor, myProcessHandler);
+  }
+
   private void printLaunchTaskStartedMessage(ConsolePrinter consolePrinter) {
     StringBuilder launchString = new StringBuilder("\n");
     DateFormat dateFormat = new SimpleDateFormat("MM/dd HH:mm:ss");
@@ -254,7 +400,11 @@ public class LaunchTaskRunner extends Task.Backgroundable {
   @Override
   public void onFinished() {
     super.onFinished();
-    for (Runnable runnable : myOnFinished) {
+    List<Runnable> onFinished;
+    synchronized (this) {
+      onFinished = new ArrayList<>(myOnFinished);
+    }
+    for (Runnable runnable : onFinished) {
       ApplicationManager.getApplication().invokeLater(runnable);
     }
   }
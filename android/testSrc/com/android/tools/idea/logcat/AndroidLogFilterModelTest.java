@@ -176,6 +176,40 @@ public class AndroidLogFilterModelTest {
     assertThat(result.isApplicable()).isFalse();
   }
 
+  @Test
+  public void filterRejectsAllLinesOfMessageRejectedByHeader() {
+    PersistentAndroidLogFilters.FilterData filterData = new PersistentAndroidLogFilters.FilterData();
+    filterData.setLogMessagePattern("line");
+    filterData.setPid("1234");
+    myFilterModel.updateLogcatFilter(DefaultAndroidLogcatFilter.compile(filterData, "(Unused Name)"));
+
+    LogFilterModel.MyProcessingResult result = myFilterModel.processLine("2018-01-23 12:34:56.789 4321-5678/? I/DummyTag: Dummy Message");
+    assertThat(result.isApplicable()).isFalse();
+
+    result = myFilterModel.processLine("+ line 2");
+    assertThat(result.isApplicable()).isFalse();
+
+    result = myFilterModel.processLine("2018-01-23 12:34:56.789 1234-5678/? I/DummyTag: Dummy Message");
+    assertThat(result.isApplicable()).isFalse();
+
+    result = myFilterModel.processLine("+ line 2");
+    assertThat(result.isApplicable()).isTrue();
+    assert (result.getMessagePrefix() != null);
+    assertThat(result.getMessagePrefix()).isEqualTo("2018-01-23 12:34:56.789 1234-5678/? I/DummyTag: Dummy Message\n");
+  }
+
+  @Test
+  public void filterRejectsContinuationLinesBelowMinimumLogLevel() {
+    myFilterModel.setMinimumLevel(LogLevel.ERROR);
+    myFilterModel.updateCustomPattern(Pattern.compile("line 2"));
+
+    LogFilterModel.MyProcessingResult result = myFilterModel.processLine("2018-01-23 12:34:56.789 1234-5678/? I/DummyTag: line 1");
+    assertThat(result.isApplicable()).isFalse();
+
+    result = myFilterModel.processLine("+ line 2");
+    assertThat(result.isApplicable()).isFalse();
+  }
+
   private static final class TestFilterModel extends AndroidLogFilterModel {
     @NotNull private LogLevel myMinimumLevel = LogLevel.VERBOSE; // Allow all messages by default
 
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.android.tools.idea.logcat;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.android.ddmlib.IDevice;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BinaryLogcatReceiverTest {
+  // Size of the version 4 logger_entry header, with the lid and uid fields
+  private static final int V4_HEADER_SIZE = 28;
+
+  private TestFormattedLogcatReceiver myLogcatListener;
+  private BinaryLogcatReceiver myReceiver;
+
+  @Before
+  public void setUp() {
+    IDevice device = AndroidLogcatReceiverTest.createMockDevice();
+    myLogcatListener = new TestFormattedLogcatReceiver();
+    myReceiver = new BinaryLogcatReceiver(device, new AndroidLogcatReceiver(device, myLogcatListener));
+  }
+
+  @Test
+  public void addOutputWorksOnSimpleLogEntry() {
+    byte[] entry =
+      createEntry(V4_HEADER_SIZE, 1493, 1595, 1534635551, 439000000, 5, "EDMNativeHelper", "EDMNativeHelperService is published");
+    myReceiver.addOutput(entry, 0, entry.length);
+
+    String expected = "2018-08-18 16:39:11.439 1493-1595/dummy.client.name W/EDMNativeHelper: EDMNativeHelperService is published\n";
+    assertThat(myLogcatListener.toString()).isEqualTo(expected);
+  }
+
+  @Test
+  public void addOutputHandlesVersion1Headers() {
+    byte[] entry = createEntry(0, 99, 99, 1516739696, 789000000, 2, "UnknownClient", "Dummy Message");
+    myReceiver.addOutput(entry, 0, entry.length);
+
+    assertThat(myLogcatListener.toString()).isEqualTo("2018-01-23 12:34:56.789 99-99/? V/UnknownClient: Dummy Message\n");
+  }
+
+  @Test
+  public void addOutputHandlesEntriesSplitAcrossReads() {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    byte[] first = createEntry(V4_HEADER_SIZE, 99, 99, 1516739696, 789000000, 2, "UnknownClient", "Line 1\nLine 2\n");
+    byte[] second = createEntry(V4_HEADER_SIZE, 99, 99, 1516741200, 0, 2, "UnknownClient", "Line 1");
+    stream.write(first, 0, first.length);
+    stream.write(second, 0, second.length);
+    byte[] output = stream.toByteArray();
+
+    for (int i = 0; i < output.length; i++) {
+      myReceiver.addOutput(output, i, 1);
+    }
+
+    String expected = "2018-01-23 12:34:56.789 99-99/? V/UnknownClient: Line 1\n" +
+                      "+ Line 2\n" +
+                      "2018-01-23 13:00:00.000 99-99/? V/UnknownClient: Line 1\n";
+    assertThat(myLogcatListener.toString()).isEqualTo(expected);
+  }
+
+  @Test
+  public void addOutputHandlesUserNewlines() {
+    byte[] entry = createEntry(V4_HEADER_SIZE, 99, 99, 1516739696, 789000000, 2, "UnknownClient", "\n\n1: {\r\n\n}\n");
+    myReceiver.addOutput(entry, 0, entry.length);
+
+    String expected = "2018-01-23 12:34:56.789 99-99/? V/UnknownClient: 1: {\n" +
+                      "+ \n" +
+                      "+ }\n";
+    assertThat(myLogcatListener.toString()).isEqualTo(expected);
+  }
+
+  @Test
+  public void addOutputIgnoresCorruptedOutput() {
+    byte[] entry = createEntry(8, 99, 99, 1516739696, 789000000, 2, "UnknownClient", "Dummy Message");
+    myReceiver.addOutput(entry, 0, entry.length);
+
+    entry = createEntry(V4_HEADER_SIZE, 99, 99, 1516739696, 789000000, 2, "UnknownClient", "Dummy Message");
+    myReceiver.addOutput(entry, 0, entry.length);
+
+    assertThat(myLogcatListener.toString()).isEmpty();
+  }
+
+  /**
+   * Creates a logger_entry as written by 'logcat -B'. A header size of 0 creates a version 1 entry.
+   */
+  @NotNull
+  private static byte[] createEntry(int headerSize,
+                                    int pid,
+                                    int tid,
+                                    int seconds,
+                                    int nanos,
+                                    int priority,
+                                    @NotNull String tag,
+                                    @NotNull String message) {
+    byte[] tagBytes = tag.getBytes(StandardCharsets.UTF_8);
+    byte[] messageBytes = message.getBytes(StandardCharsets.UTF_8);
+    int payloadSize = 1 + tagBytes.length + 1 + messageBytes.length + 1;
+    int actualHeaderSize = headerSize == 0 ? 20 : Math.max(headerSize, 20);
+
+    ByteBuffer buffer = ByteBuffer.allocate(actualHeaderSize + payloadSize).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putShort((short)payloadSize);
+    buffer.putShort((short)headerSize);
+    buffer.putInt(pid);
+    buffer.putInt(tid);
+    buffer.putInt(seconds);
+    buffer.putInt(nanos);
+    buffer.position(actualHeaderSize);
+    buffer.put((byte)priority);
+    buffer.put(tagBytes);
+    buffer.put((byte)0);
+    buffer.put(messageBytes);
+    buffer.put((byte)0);
+    return buffer.array();
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.android.tools.idea.logcat;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.android.ddmlib.Log.LogLevel;
+import com.android.ddmlib.logcat.LogCatHeader;
+import com.android.ddmlib.logcat.LogCatMessage;
+import com.android.ddmlib.logcat.LogCatTimestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class LogcatBufferTest {
+  @Test
+  public void testMessagesAreReplayedUnchanged() {
+    LogcatBuffer buffer = new LogcatBuffer(Integer.MAX_VALUE);
+    LogCatMessage epochMessage = createMessage(LogLevel.WARN, "Tag", "Line with ünïcödé");
+    @SuppressWarnings("deprecation")
+    LogCatMessage legacyMessage = new LogCatMessage(
+      new LogCatHeader(LogLevel.ERROR, 1, 2, "com.example.app", "Other", LogCatTimestamp.fromString("08-18 16:39:11.439")), "Legacy line");
+    buffer.addMessage(epochMessage);
+    buffer.addMessage(legacyMessage);
+
+    assertThat(toStrings(buffer)).containsExactly(epochMessage.toString(), legacyMessage.toString()).inOrder();
+  }
+
+  @Test
+  public void testOldestMessagesAreEvicted() {
+    LogcatBuffer buffer = new LogcatBuffer(10);
+    buffer.addMessage(createMessage(LogLevel.INFO, "Tag", "12345"));
+    buffer.addMessage(createMessage(LogLevel.INFO, "Tag", "67890"));
+    buffer.addMessage(createMessage(LogLevel.INFO, "Tag", "abc"));
+
+    assertThat(buffer.getMessageCount()).isEqualTo(2);
+    assertThat(messages(buffer)).containsExactly("67890", "abc").inOrder();
+  }
+
+  @Test
+  public void testEvictionAcrossChunks() {
+    LogcatBuffer buffer = new LogcatBuffer(LogcatBuffer.MESSAGES_PER_CHUNK + 1);
+    for (int i = 0; i < LogcatBuffer.MESSAGES_PER_CHUNK * 3; i++) {
+      buffer.addMessage(createMessage(LogLevel.DEBUG, "Tag", String.valueOf(i % 10)));
+    }
+
+    List<String> messages = messages(buffer);
+    assertThat(messages).hasSize(LogcatBuffer.MESSAGES_PER_CHUNK + 1);
+    assertThat(messages.get(messages.size() - 1)).isEqualTo(String.valueOf((LogcatBuffer.MESSAGES_PER_CHUNK * 3 - 1) % 10));
+  }
+
+  @Test
+  public void testTagsOfEvictedMessagesAreNotKept() {
+    LogcatBuffer buffer = new LogcatBuffer(LogcatBuffer.MESSAGES_PER_CHUNK);
+    for (int i = 0; i < LogcatBuffer.MESSAGES_PER_CHUNK * 3; i++) {
+      buffer.addMessage(createMessage(LogLevel.DEBUG, "Tag" + i, "x"));
+    }
+
+    // Only the last chunk is left, with the tags of its messages and their app name.
+    assertThat(buffer.getInternedStringCount()).isEqualTo(LogcatBuffer.MESSAGES_PER_CHUNK + 1);
+    LogCatMessage last = null;
+    for (LogCatMessage message : buffer) {
+      last = message;
+    }
+    assertThat(last.getHeader().getTag()).isEqualTo("Tag" + (LogcatBuffer.MESSAGES_PER_CHUNK * 3 - 1));
+  }
+
+  @Test
+  public void testIteratorIgnoresMessagesAddedLater() {
+    LogcatBuffer buffer = new LogcatBuffer(Integer.MAX_VALUE);
+    buffer.addMessage(createMessage(LogLevel.INFO, "Tag", "First"));
+    Iterator<LogCatMessage> iterator = buffer.iterator();
+    for (int i = 0; i < LogcatBuffer.MESSAGES_PER_CHUNK; i++) {
+      buffer.addMessage(createMessage(LogLevel.INFO, "Tag", "Later"));
+    }
+
+    assertThat(iterator.next().getMessage()).isEqualTo("First");
+    assertThat(iterator.hasNext()).isFalse();
+  }
+
+  @NotNull
+  private static LogCatMessage createMessage(@NotNull LogLevel level, @NotNull String tag, @NotNull String message) {
+    return new LogCatMessage(new LogCatHeader(level, 1493, 1493, "com.example.app", tag, Instant.ofEpochSecond(1534635551, 439000000)),
+                             message);
+  }
+
+  @NotNull
+  private static List<String> toStrings(@NotNull LogcatBuffer buffer) {
+    List<String> strings = new ArrayList<>();
+    buffer.forEach(message -> strings.add(message.toString()));
+    return strings;
+  }
+
+  @NotNull
+  private static List<String> messages(@NotNull LogcatBuffer buffer) {
+    List<String> messages = new ArrayList<>();
+    buffer.forEach(message -> messages.add(message.getMessage()));
+    return messages;
+  }
+}
@@ -16,7 +16,12 @@
 package com.android.tools.idea.rendering;
 
 import com.android.ide.common.rendering.api.ViewInfo;
+import com.android.tools.idea.rendering.RenderService.RenderingPriority;
+import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import junit.framework.TestCase;
 
@@ -84,4 +89,85 @@ public class RenderServiceTest extends TestCase {
     future.get();
     assertTrue(called.get());
   }
-}
\ No newline at end of file
+
+  public void testHighPriorityActionOvertakesPendingNormalActions() throws Exception {
+    List<String> order = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch blockRenderThread = blockRenderThread();
+
+    List<CompletableFuture<?>> futures = new ArrayList<>();
+    futures.add(addOrderedAction(order, "normal1", RenderingPriority.NORMAL));
+    futures.add(addOrderedAction(order, "normal2", RenderingPriority.NORMAL));
+    futures.add(addOrderedAction(order, "high", RenderingPriority.HIGH));
+    futures.add(addOrderedAction(order, "immediate", RenderingPriority.IMMEDIATE));
+
+    blockRenderThread.countDown();
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+
+    assertEquals(ImmutableList.of("immediate", "high", "normal1", "normal2"), order);
+  }
+
+  public void testDisposeRunsAfterPendingRenders() throws Exception {
+    List<String> order = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch blockRenderThread = blockRenderThread();
+
+    List<CompletableFuture<?>> futures = new ArrayList<>();
+    futures.add(addOrderedAction(order, "normal1", RenderingPriority.NORMAL));
+    futures.add(addOrderedAction(order, "normal2", RenderingPriority.NORMAL));
+    // Dispose actions are submitted without a priority, like RenderTask does for its session
+    CountDownLatch disposeDone = new CountDownLatch(1);
+    RenderService.runAsyncRenderAction(() -> {
+      order.add("dispose");
+      disposeDone.countDown();
+    });
+
+    blockRenderThread.countDown();
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+    disposeDone.await();
+
+    assertEquals(ImmutableList.of("normal1", "normal2", "dispose"), order);
+  }
+
+  public void testNormalActionIsNotStarvedByHighPriorityActions() throws Exception {
+    List<String> order = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch blockRenderThread = blockRenderThread();
+
+    List<CompletableFuture<?>> futures = new ArrayList<>();
+    futures.add(addOrderedAction(order, "normal", RenderingPriority.NORMAL));
+    int highCount = RenderService.MAX_HIGH_PRIORITY_OVERTAKES * 2;
+    for (int i = 0; i < highCount; i++) {
+      futures.add(addOrderedAction(order, "high" + i, RenderingPriority.HIGH));
+    }
+
+    blockRenderThread.countDown();
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+
+    // The high priority actions submitted shortly after the normal one overtake it, the rest run after it
+    assertEquals(highCount + 1, order.size());
+    assertEquals(RenderService.MAX_HIGH_PRIORITY_OVERTAKES - 1, order.indexOf("normal"));
+  }
+
+  /**
+   * Blocks the render thread until the returned latch is released, so the actions submitted in the meantime are queued.
+   */
+  private static CountDownLatch blockRenderThread() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    RenderService.runAsyncRenderAction(() -> {
+      started.countDown();
+      try {
+        release.await();
+      }
+      catch (InterruptedException ignore) {
+      }
+    });
+    started.await();
+    return release;
+  }
+
+  private static CompletableFuture<Void> addOrderedAction(List<String> order, String name, RenderingPriority priority) {
+    return RenderService.runAsyncRenderAction(() -> {
+      order.add(name);
+      return null;
+    }, priority);
+  }
+}
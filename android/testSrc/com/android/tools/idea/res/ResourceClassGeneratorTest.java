@@ -309,6 +309,35 @@ public class ResourceClassGeneratorTest extends AndroidTestCase {
     assertEquals(1000, iArray.length);
   }
 
+  public void testOnlyChangedTypesAreRegenerated() throws Exception {
+    TestResourceRepository repository = resourceFixture.createTestResources(RES_AUTO, new Object[] {
+      "values/values.xml", "" +
+                           "<?xml version=\"1.0\" encoding=\"utf-8\"?>\n" +
+                           "<resources>\n" +
+                           "    <string name=\"app_name\">App</string>\n" +
+                           "    <declare-styleable name=\"AppStyleable\">\n" +
+                           "        <attr name=\"android:layout_width\" />\n" +
+                           "    </declare-styleable>\n" +
+                           "</resources>\n"});
+    LocalResourceRepository resources = new LocalResourceRepositoryDelegate("resources", repository);
+    AppResourceRepository appResources = new AppResourceRepository(myFacet, ImmutableList.of(resources), Collections.emptyList());
+
+    ResourceClassGenerator generator = buildGenerator(appResources);
+    assertNotNull(generator);
+    byte[] strings = generator.generate("my.test.pkg.R$string");
+    byte[] styleables = generator.generate("my.test.pkg.R$styleable");
+    assertSame(strings, generator.generate("my.test.pkg.R$string"));
+    assertSame(styleables, generator.generate("my.test.pkg.R$styleable"));
+
+    // A change that doesn't add or remove strings keeps the generated R.string, while R.styleable depends on the attributes
+    // declared in the styleables and has to be regenerated.
+    appResources.invalidateCache();
+    assertSame(strings, generator.generate("my.test.pkg.R$string"));
+    byte[] regeneratedStyleables = generator.generate("my.test.pkg.R$styleable");
+    assertNotSame(styleables, regeneratedStyleables);
+    assertTrue(Arrays.equals(styleables, regeneratedStyleables));
+  }
+
   private static class LocalResourceRepositoryDelegate extends LocalResourceRepository implements SingleNamespaceResourceRepository {
     private final TestResourceRepository myDelegate;
 
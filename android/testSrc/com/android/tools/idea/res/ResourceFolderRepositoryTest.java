@@ -3789,6 +3789,25 @@ public class ResourceFolderRepositoryTest extends AndroidTestCase {
     assertEquals(0, resourcesReloaded.getNumXmlFilesLoadedInitiallyFromSources());
   }
 
+  /**
+   * Checks that only the files which are parsed during the initial scan are prefetched, and that the parser reads all of them.
+   */
+  public void testPrefetchedFilesAreParsed() {
+    myFixture.copyFileToProject(LAYOUT1, "res/layout/layout.xml");
+    myFixture.copyFileToProject(LAYOUT1, "res/layout/layout2.xml");
+    myFixture.copyFileToProject(VALUES1, "res/values/myvalues.xml");
+    myFixture.copyFileToProject(STRINGS, "res/values/strings.xml");
+    String shape = "<shape xmlns:android=\"http://schemas.android.com/apk/res/android\" android:shape=\"rectangle\"/>";
+    myFixture.addFileToProject("res/drawable/shape1.xml", shape);
+    myFixture.addFileToProject("res/drawable/shape2.xml", shape);
+    ResourceFolderRepository resources = createRepository(false);
+    assertNotNull(resources);
+
+    assertEquals(4, resources.getNumXmlFilesLoadedInitiallyFromSources());
+    assertEquals(4, resources.getNumXmlFilesPrefetchedInitially());
+    assertEquals(4, resources.getNumPrefetchedXmlFilesParsedInitially());
+  }
+
   public void testSerialization() {
     myFixture.copyFileToProject(LAYOUT1, "res/layout/layout.xml");
     myFixture.copyFileToProject(LAYOUT1, "res/layout-xlarge-land/layout.xml");
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.android.tools.idea.run
+
+import com.android.ddmlib.IDevice
+import com.android.testutils.MockitoKt.any
+import com.android.tools.idea.run.tasks.LaunchResult
+import com.android.tools.idea.run.tasks.LaunchTask
+import com.android.tools.idea.run.tasks.LaunchTasksProvider
+import com.android.tools.idea.run.util.LaunchStatus
+import com.android.tools.idea.stats.RunStats
+import com.android.tools.idea.testing.AndroidProjectRule
+import com.google.common.truth.Truth.assertThat
+import com.intellij.execution.Executor
+import com.intellij.execution.process.ProcessHandler
+import com.intellij.execution.runners.ExecutionEnvironment
+import com.intellij.execution.runners.ProgramRunner
+import com.intellij.openapi.progress.EmptyProgressIndicator
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+import org.mockito.ArgumentMatchers.anyBoolean
+import org.mockito.ArgumentMatchers.anyString
+import org.mockito.Mock
+import org.mockito.Mockito.`when`
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.mockito.MockitoAnnotations.initMocks
+
+@RunWith(JUnit4::class)
+class LaunchTaskRunnerTest {
+  @get:Rule
+  val projectRule = AndroidProjectRule.inMemory()
+
+  @Mock lateinit var executor: Executor
+  @Mock lateinit var env: ExecutionEnvironment
+  @Mock lateinit var processHandler: ProcessHandler
+  @Mock lateinit var launchTasksProvider: LaunchTasksProvider
+  @Mock lateinit var stats: RunStats
+  @Mock lateinit var launchStatus: LaunchStatus
+  @Mock lateinit var printer: ConsolePrinter
+
+  private lateinit var runner: LaunchTaskRunner
+
+  @Before
+  fun setUp() {
+    initMocks(this)
+    runner = LaunchTaskRunner(projectRule.project,
+                              "app",
+                              "com.app",
+                              null,
+                              LaunchInfo(executor, mock(ProgramRunner::class.java), env, mock(ConsoleProvider::class.java)),
+                              processHandler,
+                              DeviceFutures.forDevices(emptyList()),
+                              launchTasksProvider,
+                              stats,
+                              { _, _ -> })
+  }
+
+  @Test
+  fun runLaunchTasksConcurrently_allDevicesSucceed() {
+    val device1 = mockDevice("device1")
+    val device2 = mockDevice("device2")
+    val task1 = TestLaunchTask { LaunchResult.success() }
+    val task2 = TestLaunchTask { LaunchResult.success() }
+
+    runner.runLaunchTasksConcurrently(listOf(device1, device2), listOf(listOf(task1), listOf(task2)), EmptyProgressIndicator(),
+                                      launchStatus, printer, true)
+
+    assertThat(task1.devices).containsExactly(device1)
+    assertThat(task2.devices).containsExactly(device2)
+    verify(launchStatus, never()).terminateLaunch(any(String::class.java), anyBoolean())
+    verify(printer, never()).stderr(anyString())
+  }
+
+  @Test
+  fun runLaunchTasksConcurrently_oneDeviceFails() {
+    val device1 = mockDevice("device1")
+    val device2 = mockDevice("device2")
+    val failingTask = TestLaunchTask { failure() }
+    val nextTask = TestLaunchTask { LaunchResult.success() }
+    val task2 = TestLaunchTask { LaunchResult.success() }
+
+    runner.runLaunchTasksConcurrently(listOf(device1, device2), listOf(listOf(failingTask, nextTask), listOf(task2)),
+                                      EmptyProgressIndicator(), launchStatus, printer, true)
+
+    // The failed device stops at its failed task, while the other device still runs its tasks and the launch carries on.
+    assertThat(failingTask.devices).containsExactly(device1)
+    assertThat(nextTask.devices).isEmpty()
+    assertThat(task2.devices).containsExactly(device2)
+    verify(printer).stderr("device1: Error while testing")
+    verify(launchStatus, never()).terminateLaunch(any(String::class.java), anyBoolean())
+  }
+
+  @Test
+  fun runLaunchTasksConcurrently_allDevicesFail() {
+    val device1 = mockDevice("device1")
+    val device2 = mockDevice("device2")
+
+    runner.runLaunchTasksConcurrently(listOf(device1, device2),
+                                      listOf(listOf(TestLaunchTask { failure() }), listOf(TestLaunchTask { failure() })),
+                                      EmptyProgressIndicator(), launchStatus, printer, true)
+
+    verify(printer).stderr("device1: Error while testing")
+    verify(printer).stderr("device2: Error while testing")
+    verify(launchStatus).terminateLaunch("Launch failed on all 2 devices.", true)
+  }
+
+  private fun mockDevice(name: String): IDevice {
+    val device = mock(IDevice::class.java)
+    `when`(device.name).thenReturn(name)
+    return device
+  }
+
+  private fun failure() = LaunchResult.error("TEST_ERROR", "testing")
+
+  private class TestLaunchTask(private val result: () -> LaunchResult) : LaunchTask {
+    val devices: MutableList<IDevice> = mutableListOf()
+
+    override fun getDescription() = "Testing"
+    override fun getDuration() = 1
+    override fun getId() = "TEST_TASK"
+    override fun run(executor: Executor, device: IDevice, launchStatus: LaunchStatus, printer: ConsolePrinter): LaunchResult {
+      devices.add(device)
+      return result()
+    }
+  }
+}
@@ -943,6 +943,11 @@ public class LayoutlibSceneManager extends SceneManager {
       taskBuilder.disableToolsAttributes();
     }
 
+    // Renders for the surface the user is looking at are scheduled before other pending renders. The task outlives changes to the
+    // visibility of the surface, so this is checked for every action.
+    taskBuilder.withPriority(
+      () -> getDesignSurface().isShowing() ? RenderService.RenderingPriority.HIGH : RenderService.RenderingPriority.NORMAL);
+
     return taskBuilder;
   }
 
@@ -34,22 +34,38 @@ import java.util.concurrent.*
  * /usr/local/google/home/ezemtsov/projects/android-apps/sum/app/src/main/cpp/native-lib.cpp:36:7
  *
  * More info about llvm-symbolizer: https://llvm.org/docs/CommandGuide/llvm-symbolizer.html
+ *
+ * Results are kept in a bounded LRU cache for as long as the symbolizer lives, so the same frames showing up again in later captures
+ * don't need another round trip to llvm-symbolizer. Cache entries are tied to the symbol file's timestamp and size, so rebuilding a
+ * native library invalidates them. Only responses terminated by the protocol's empty line are cached.
  */
 class LlvmSymbolizer(private val symbolizerExe: String,
                      private val symLocator: SymbolFilesLocator,
-                     private val timeoutMsc: Long = 5000) : NativeSymbolizer {
+                     private val timeoutMsc: Long = 5000,
+                     private val maxCachedSymbols: Int = 100000) : NativeSymbolizer {
 
   private var procHolder : ProcessHolder? = null
   private val executor : ExecutorService = Executors.newSingleThreadExecutor()
+  private val symbolCache = object : LinkedHashMap<SymbolKey, CachedSymbol>(16, 0.75f, true) {
+    override fun removeEldestEntry(eldest: MutableMap.MutableEntry<SymbolKey, CachedSymbol>?) = size > maxCachedSymbols
+  }
 
   override fun symbolize(abiArch: String, module: String, offset: Long): Symbol? {
     val symFiles = symLocator.findSymbolFiles(abiArch, module)
 
     for (symFile in symFiles) {
+      val key = SymbolKey(module, symFile.path, symFile.lastModified(), symFile.length(), offset)
+      val cached = synchronized(symbolCache) { symbolCache[key] }
+      if (cached != null) {
+        if (cached.symbol != null)
+          return cached.symbol
+        continue
+      }
+
       val request = formatRequest(symFile, offset)
 
       val holder = getProcHolder()
-      val future = executor.submit( Callable<List<String>> {
+      val future = executor.submit( Callable<List<String>?> {
         holder.stdin.write(request)
         holder.stdin.flush()
 
@@ -57,7 +73,11 @@ class LlvmSymbolizer(private val symbolizerExe: String,
         var responseLine: String?
         while (true) {
           responseLine = holder.stdout.readLine()
-          if (responseLine == null || responseLine.isEmpty()) {
+          if (responseLine == null) {
+            // llvm-symbolizer exited before finishing its response, so whatever it wrote can't be trusted.
+            return@Callable null
+          }
+          if (responseLine.isEmpty()) {
             break
           }
           response.add(responseLine)
@@ -66,7 +86,13 @@ class LlvmSymbolizer(private val symbolizerExe: String,
       })
       val response : List<String>
       try {
-        response = future.get(timeoutMsc, TimeUnit.MILLISECONDS)
+        val completeResponse = future.get(timeoutMsc, TimeUnit.MILLISECONDS)
+        if (completeResponse == null) {
+          getLogger().warn("llvm-symbolizer exited unexpectedly")
+          stop()
+          continue
+        }
+        response = completeResponse
       } catch (e: TimeoutException) {
         getLogger().warn("llvm-symbolizer timed out", e)
         stop()
@@ -78,6 +104,7 @@ class LlvmSymbolizer(private val symbolizerExe: String,
       }
 
       val result = parseResponse(response, module)
+      synchronized(symbolCache) { symbolCache[key] = CachedSymbol(result) }
       if (result != null)
         return result
     }
@@ -146,6 +173,20 @@ class LlvmSymbolizer(private val symbolizerExe: String,
     procHolder = null
   }
 
+  /**
+   * Identifies the result of symbolizing an offset with a particular version of a symbol file.
+   */
+  private data class SymbolKey(val module: String,
+                               val symFilePath: String,
+                               val symFileTimestamp: Long,
+                               val symFileSize: Long,
+                               val offset: Long)
+
+  /**
+   * Wraps a symbolization result, so that offsets llvm-symbolizer couldn't resolve are cached as well.
+   */
+  private class CachedSymbol(val symbol: Symbol?)
+
   private class ProcessHolder(val process: Process,
                               val stdout: BufferedReader,
                               val stdin: OutputStreamWriter) : Disposable {
@@ -168,6 +168,77 @@ class LlvmSymbolizerTest {
     Assert.assertNull(sym)
   }
 
+  @Test
+  fun testResultsAreCachedPerSymbolFileVersion() {
+    Assume.assumeFalse(SystemInfo.isWindows) // The fake llvm-symbolizer is a shell script
+    val tempDir = FileUtil.createTempDirectory("llvm-symbolizer", "cache-test", true)
+    val requestLog = File(tempDir, "requests.txt")
+    val symbolizer = createFakeSymbolizer(tempDir, requestLog)
+    val symFile = File(tempDir, "x86/$LIB_FILE_NAME")
+
+    val symbol = symbolizer.symbolize("x86", LIB_FILE_NAME, 0x10)!!
+    Assert.assertEquals("TestFunction", symbol.name)
+    Assert.assertEquals(36, symbol.lineNumber)
+    Assert.assertNull(symbolizer.symbolize("x86", LIB_FILE_NAME, 0xbad))
+    Assert.assertEquals(2, requestLog.readLines().size)
+
+    // Both the resolved and the unresolved offsets are answered from the cache
+    Assert.assertEquals(symbol, symbolizer.symbolize("x86", LIB_FILE_NAME, 0x10))
+    Assert.assertNull(symbolizer.symbolize("x86", LIB_FILE_NAME, 0xbad))
+    Assert.assertEquals(2, requestLog.readLines().size)
+
+    // Rebuilding the library changes its timestamp, which invalidates what was cached for it
+    Assert.assertTrue(symFile.setLastModified(symFile.lastModified() - 10000))
+    Assert.assertNotNull(symbolizer.symbolize("x86", LIB_FILE_NAME, 0x10))
+    Assert.assertEquals(3, requestLog.readLines().size)
+
+    // And so does a change of its size
+    symFile.appendBytes(ByteArray(16))
+    Assert.assertNotNull(symbolizer.symbolize("x86", LIB_FILE_NAME, 0x10))
+    Assert.assertEquals(4, requestLog.readLines().size)
+  }
+
+  @Test
+  fun testResponseCutShortIsNotCached() {
+    Assume.assumeFalse(SystemInfo.isWindows) // The fake llvm-symbolizer is a shell script
+    val tempDir = FileUtil.createTempDirectory("llvm-symbolizer", "exit-test", true)
+    val requestLog = File(tempDir, "requests.txt")
+    val symbolizer = createFakeSymbolizer(tempDir, requestLog)
+
+    // The fake llvm-symbolizer exits in the middle of its response for this offset
+    Assert.assertNull(symbolizer.symbolize("x86", LIB_FILE_NAME, 0xdead))
+    Assert.assertNull(symbolizer.symbolize("x86", LIB_FILE_NAME, 0xdead))
+    Assert.assertEquals(2, requestLog.readLines().size)
+
+    // The symbolizer is restarted for later requests
+    Assert.assertEquals("TestFunction", symbolizer.symbolize("x86", LIB_FILE_NAME, 0x10)!!.name)
+  }
+
+  /**
+   * Creates a symbolizer running a script which speaks the llvm-symbolizer protocol and logs every request it gets. The script can't
+   * resolve offset 0xbad, and exits in the middle of its response for offset 0xdead.
+   */
+  private fun createFakeSymbolizer(tempDir: File, requestLog: File): NativeSymbolizer {
+    val symbolDir = File(tempDir, "x86")
+    Assert.assertTrue(symbolDir.mkdirs())
+    FileUtil.copy(Paths.get(testDataDir, "x86", LIB_FILE_NAME).toFile(), File(symbolDir, LIB_FILE_NAME))
+    val script = File(tempDir, "fake-llvm-symbolizer.sh")
+    script.writeText("""
+      #!/bin/sh
+      while read -r request; do
+        echo "${'$'}request" >> "${requestLog.path}"
+        case "${'$'}request" in
+          *0xbad) echo "??"; echo "??:0:0";;
+          *0xdead) echo "TestFunction"; exit 1;;
+          *) echo "TestFunction"; echo "/src/native-lib.cpp:36:7";;
+        esac
+        echo
+      done
+    """.trimIndent())
+    Assert.assertTrue(script.setExecutable(true))
+    return LlvmSymbolizer(script.path, SymbolFilesLocator(mapOf(Pair("x86", setOf(symbolDir)))))
+  }
+
   fun getSymDirMap(): Map<String, Set<File>> {
     val result: MutableMap<String, Set<File>> = hashMapOf()
     for (arch in architectures) {
@@ -21,11 +21,13 @@ import com.android.tools.adtui.model.filter.FilterResult;
 import com.android.tools.perflib.vmtrace.ClockType;
 import com.android.tools.profilers.cpu.nodemodel.CaptureNodeModel;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class CaptureNode implements HNode<CaptureNode> {
+  private static final int INITIAL_CHILDREN_CAPACITY = 2;
 
   /**
    * Start time with GLOBAL clock.
@@ -47,8 +49,12 @@ public class CaptureNode implements HNode<CaptureNode> {
    */
   private long myEndThread;
 
+  /**
+   * Most nodes of a capture are leaves, so the list is only allocated when the first child is added. Call chains mostly have a single
+   * child per node, hence the small initial capacity.
+   */
   @NotNull
-  protected final List<CaptureNode> myChildren;
+  private List<CaptureNode> myChildren;
 
   @NotNull
   private ClockType myClockType;
@@ -73,7 +79,7 @@ public class CaptureNode implements HNode<CaptureNode> {
   private final CaptureNodeModel myData;
 
   public CaptureNode(@NotNull CaptureNodeModel model) {
-    myChildren = new ArrayList<>();
+    myChildren = Collections.emptyList();
     myClockType = ClockType.GLOBAL;
     myFilterType = FilterType.MATCH;
     myDepth = 0;
@@ -81,10 +87,20 @@ public class CaptureNode implements HNode<CaptureNode> {
   }
 
   public void addChild(CaptureNode node) {
-    myChildren.add(node);
+    appendChild(node);
     node.myParent = this;
   }
 
+  /**
+   * Adds the given node to the children of this node without changing its parent.
+   */
+  protected final void appendChild(@NotNull CaptureNode node) {
+    if (myChildren.isEmpty()) {
+      myChildren = new ArrayList<>(INITIAL_CHILDREN_CAPACITY);
+    }
+    myChildren.add(node);
+  }
+
   @NotNull
   public List<CaptureNode> getChildren() {
     return myChildren;
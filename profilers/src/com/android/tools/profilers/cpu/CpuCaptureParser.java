@@ -31,8 +31,10 @@ import com.google.common.annotations.VisibleForTesting;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.util.text.StringUtil;
 import java.io.File;
+import java.lang.ref.SoftReference;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import org.jetbrains.annotations.NotNull;
@@ -67,6 +69,13 @@ public class CpuCaptureParser {
    */
   private final Map<Long, CompletableFuture<CpuCapture>> myCaptures;
 
+  /**
+   * Captures of the session that were parsed successfully but are not the most recently requested one. They are only softly reachable,
+   * so the memory taken by their capture trees can be reclaimed. The trace bytes stay available in the datastore, so a collected capture
+   * is simply parsed again next time it is selected. The entry of a collected capture is kept until then, to tell that it is a re-parse.
+   */
+  private final Map<Long, SoftReference<CompletableFuture<CpuCapture>>> myEvictableCaptures = new HashMap<>();
+
   /**
    * Services containing the {@link java.util.concurrent.Executor} responsible for parsing the capture.
    * This is also used for determining if large trace files should be parsed.
@@ -127,14 +136,54 @@ public class CpuCaptureParser {
     myPreviouslyLoadedCaptures.clear();
   }
 
+  /**
+   * Clears the references to the evictable captures, as if they were collected.
+   */
+  @VisibleForTesting
+  void clearEvictableCaptureReferences() {
+    myEvictableCaptures.values().forEach(SoftReference::clear);
+  }
+
   /**
    * Returns a capture (or a promise of one) in case {@link #parse} was already called for the given trace id.
    */
   @Nullable
   public CompletableFuture<CpuCapture> getCapture(long traceId) {
+    selectCapture(traceId);
     return myCaptures.get(traceId);
   }
 
+  /**
+   * Makes the capture of the given trace the only session capture that is strongly reachable. Its capture is moved back to
+   * {@link #myCaptures} if it was made evictable and has not been collected yet, and the other ones are made evictable.
+   */
+  private void selectCapture(long traceId) {
+    SoftReference<CompletableFuture<CpuCapture>> reference = myEvictableCaptures.get(traceId);
+    CompletableFuture<CpuCapture> future = reference == null ? null : reference.get();
+    if (future != null) {
+      myEvictableCaptures.remove(traceId);
+      myCaptures.put(traceId, future);
+    }
+    evictOtherCaptures(traceId);
+  }
+
+  /**
+   * Makes the successfully parsed session captures other than the given one evictable. Imported traces are always kept, as they can't
+   * be obtained again from the datastore.
+   */
+  private void evictOtherCaptures(long traceId) {
+    Iterator<Map.Entry<Long, CompletableFuture<CpuCapture>>> iterator = myCaptures.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Long, CompletableFuture<CpuCapture>> entry = iterator.next();
+      long id = entry.getKey();
+      CompletableFuture<CpuCapture> future = entry.getValue();
+      if (id != traceId && id != IMPORTED_TRACE_ID && future != null && future.isDone() && !future.isCompletedExceptionally()) {
+        myEvictableCaptures.put(id, new SoftReference<>(future));
+        iterator.remove();
+      }
+    }
+  }
+
   /**
    * Next time a capture associated with the traceId is parsed, record and send the parsing metadata.
    *
@@ -352,6 +401,9 @@ public class CpuCaptureParser {
                                              CpuTraceType profilerType) {
     updateParsingStateWhenStarting();
 
+    selectCapture(traceId);
+    // A capture still in the evictable ones after being selected was collected, and its metrics were reported when it was first parsed.
+    boolean isReparse = myEvictableCaptures.remove(traceId) != null;
     if (!myCaptures.containsKey(traceId)) {
       // Trace is not being parsed nor is already parsed. We need to start parsing it.
       if (traceData.size() <= MAX_SUPPORTED_TRACE_SIZE) {
@@ -376,7 +428,7 @@ public class CpuCaptureParser {
       }
     }
 
-    CompletableFuture<CpuCapture> future = trackCaptureTrace(traceId, traceData.size());
+    CompletableFuture<CpuCapture> future = isReparse ? myCaptures.get(traceId) : trackCaptureTrace(traceId, traceData.size());
     updateParsingStateWhenDone(future);
     return future;
   }
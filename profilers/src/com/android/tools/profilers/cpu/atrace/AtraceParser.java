@@ -100,6 +100,11 @@ public class AtraceParser implements TraceParser {
    */
   private final List<SeriesData<Long>> myCpuUtilizationSeries;
 
+  /**
+   * Node models by slice name, shared by all the capture nodes of slices with the same name.
+   */
+  private final Map<String, AtraceNodeModel> myNodeModels = new HashMap<>();
+
   private int myProcessId;
   /**
    * The device boot time captured at the beginning of the trace.
@@ -331,7 +336,7 @@ public class AtraceParser implements TraceParser {
    * @return The {@link CaptureNode} that mirrors the {@link SliceGroup} passed in.
    */
   private CaptureNode populateCaptureNode(SliceGroup slice, int depth) {
-    CaptureNode node = new CaptureNode(new AtraceNodeModel(slice.getName()));
+    CaptureNode node = new CaptureNode(myNodeModels.computeIfAbsent(slice.getName(), AtraceNodeModel::new));
     node.setStartGlobal(convertToUserTimeUs(slice.getStartTime()));
     node.setEndGlobal(convertToUserTimeUs(slice.getEndTime()));
     node.setStartThread(convertToUserTimeUs(slice.getStartTime()));
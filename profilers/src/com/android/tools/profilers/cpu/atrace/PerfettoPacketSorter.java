@@ -0,0 +1,337 @@
+/*
+ * Copyright (C) 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.android.tools.profilers.cpu.atrace;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.io.FileUtil;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class takes the Atrace lines converted from {@link PerfettoTrace.FtraceEventBundle} events and returns them sorted by timestamp.
+ * This is needed because the bundles come in out of order, as well as the lines within a bundle are out of order.
+ * <p>
+ * Lines are buffered in memory until they exceed a budget. The buffer is then sorted and written as a run of binary records to a temp
+ * file. Once all lines have been added, {@link #resetForIterator()} merges the runs with a k-way merge, so memory use is bounded by the
+ * budget regardless of the size of the trace. Lines with the same timestamp are returned in the order they were added.
+ */
+public class PerfettoPacketSorter implements Iterator<String> {
+  /**
+   * Approximate number of bytes of lines kept in memory before they are spilled to disk.
+   */
+  private static final long DEFAULT_MEMORY_BUDGET_BYTES = 64 * 1024 * 1024;
+
+  /**
+   * Rough per-line overhead of the buffered {@link Line} and {@link String} objects, in bytes.
+   */
+  private static final int LINE_OVERHEAD_BYTES = 64;
+
+  private static final Comparator<Line> BY_TIMESTAMP = Comparator.comparingLong(line -> line.myTimestamp);
+
+  private final long myMemoryBudgetBytes;
+  // Directory of the run files, or null for the default temp directory.
+  @Nullable private final File myRunDirectory;
+  @NotNull private final List<Line> myBuffer = new ArrayList<>();
+  private long myBufferedBytes;
+  @NotNull private final List<File> myRunFiles = new ArrayList<>();
+  @NotNull private final List<Run> myRuns = new ArrayList<>();
+  @Nullable private PriorityQueue<Run> myMergeQueue;
+  private boolean myIsClosed;
+  // Set once spilling failed, after which all lines are kept in memory rather than failing again on every line.
+  private boolean myIsSpillingDisabled;
+
+  private static Logger getLogger() {
+    return Logger.getInstance(PerfettoPacketSorter.class);
+  }
+
+  public PerfettoPacketSorter() {
+    this(DEFAULT_MEMORY_BUDGET_BYTES);
+  }
+
+  @VisibleForTesting
+  PerfettoPacketSorter(long memoryBudgetBytes) {
+    this(memoryBudgetBytes, null);
+  }
+
+  @VisibleForTesting
+  PerfettoPacketSorter(long memoryBudgetBytes, @Nullable File runDirectory) {
+    myMemoryBudgetBytes = memoryBudgetBytes;
+    myRunDirectory = runDirectory;
+  }
+
+  /**
+   * As a trace file is loaded each converted event line should be added to the sorter along with the timestamp of its event.
+   */
+  public void addLine(long timestamp, @NotNull String line) {
+    // If the sorter was already consumed or closed, return instead of spamming the output.
+    if (myMergeQueue != null || myIsClosed) {
+      return;
+    }
+    myBuffer.add(new Line(timestamp, line));
+    myBufferedBytes += LINE_OVERHEAD_BYTES + 2L * line.length();
+    if (myBufferedBytes > myMemoryBudgetBytes && !myIsSpillingDisabled) {
+      try {
+        spillBuffer();
+      }
+      catch (IOException ex) {
+        // Keep the lines in memory, we can still sort them there.
+        getLogger().warn("Unable to spill sorted lines to disk, keeping them in memory", ex);
+        myIsSpillingDisabled = true;
+      }
+    }
+  }
+
+  /**
+   * This function should be called when we want to finalize this class for writing and enable it for reading.
+   * The lines still in memory are sorted and the merge of all runs is started.
+   */
+  public void resetForIterator() {
+    if (myIsClosed) {
+      return;
+    }
+    myBuffer.sort(BY_TIMESTAMP);
+    List<Run> runs = new ArrayList<>(myRunFiles.size() + 1);
+    for (File file : myRunFiles) {
+      // A run that can't be read only loses its own lines, the other runs are still merged.
+      try {
+        runs.add(new FileRun(file, runs.size()));
+      }
+      catch (IOException ex) {
+        getLogger().warn("Unable to read sorted lines from " + file, ex);
+      }
+    }
+    runs.add(new MemoryRun(new ArrayList<>(myBuffer), runs.size()));
+    myBuffer.clear();
+    myBufferedBytes = 0;
+
+    // Runs that were spilled earlier hold the lines that were added earlier, so for equal timestamps the run index keeps the order
+    // in which the lines were added.
+    myMergeQueue = new PriorityQueue<>(Math.max(1, runs.size()), Comparator.<Run>comparingLong(run -> run.peek().myTimestamp)
+      .thenComparingInt(run -> run.myIndex));
+    for (Run run : runs) {
+      myRuns.add(run);
+      if (run.peek() != null) {
+        myMergeQueue.add(run);
+      }
+    }
+  }
+
+  /**
+   * Close the temp files of the runs and free resources.
+   */
+  public void close() {
+    for (Run run : myRuns) {
+      run.close();
+    }
+    myRuns.clear();
+    for (File file : myRunFiles) {
+      FileUtil.delete(file);
+    }
+    myRunFiles.clear();
+    myBuffer.clear();
+    myBufferedBytes = 0;
+    myMergeQueue = null;
+    myIsClosed = true;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return myMergeQueue != null && !myMergeQueue.isEmpty();
+  }
+
+  @Override
+  @NotNull
+  public String next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    Run run = myMergeQueue.poll();
+    Line line = run.poll();
+    if (run.peek() != null) {
+      myMergeQueue.add(run);
+    }
+    return line.myText;
+  }
+
+  /**
+   * Sorts the lines in memory and writes them to a temp file as a run of (timestamp, length, UTF-8 bytes) records. The run is only
+   * registered once completely written, so that a failure leaves all the lines in memory and none of them in a partial run.
+   */
+  private void spillBuffer() throws IOException {
+    myBuffer.sort(BY_TIMESTAMP);
+    File file = myRunDirectory != null
+                ? FileUtil.createTempFile(myRunDirectory, "perfetto", ".run", true, true)
+                : FileUtil.createTempFile("perfetto", ".run", true);
+    try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+      for (Line line : myBuffer) {
+        byte[] bytes = line.myText.getBytes(StandardCharsets.UTF_8);
+        output.writeLong(line.myTimestamp);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+      }
+    }
+    catch (IOException ex) {
+      FileUtil.delete(file);
+      throw ex;
+    }
+    myRunFiles.add(file);
+    myBuffer.clear();
+    myBufferedBytes = 0;
+  }
+
+  @VisibleForTesting
+  int getSpilledRunCount() {
+    return myRunFiles.size();
+  }
+
+  @VisibleForTesting
+  @NotNull
+  List<File> getSpilledRunFiles() {
+    return myRunFiles;
+  }
+
+  private static final class Line {
+    private final long myTimestamp;
+    @NotNull private final String myText;
+
+    private Line(long timestamp, @NotNull String text) {
+      myTimestamp = timestamp;
+      myText = text;
+    }
+  }
+
+  /**
+   * A sequence of lines sorted by timestamp.
+   */
+  private abstract static class Run {
+    private final int myIndex;
+
+    private Run(int index) {
+      myIndex = index;
+    }
+
+    /**
+     * Returns the next line of the run without consuming it, or null if the run is exhausted.
+     */
+    @Nullable
+    abstract Line peek();
+
+    @NotNull
+    abstract Line poll();
+
+    void close() {
+    }
+  }
+
+  private static final class MemoryRun extends Run {
+    @NotNull private final List<Line> myLines;
+    private int myPosition;
+
+    private MemoryRun(@NotNull List<Line> lines, int index) {
+      super(index);
+      myLines = lines;
+    }
+
+    @Override
+    @Nullable
+    Line peek() {
+      return myPosition < myLines.size() ? myLines.get(myPosition) : null;
+    }
+
+    @Override
+    @NotNull
+    Line poll() {
+      return myLines.get(myPosition++);
+    }
+  }
+
+  private static final class FileRun extends Run {
+    @NotNull private final DataInputStream myInput;
+    @Nullable private Line myNext;
+
+    private FileRun(@NotNull File file, int index) throws IOException {
+      super(index);
+      myInput = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      try {
+        myNext = read();
+      }
+      catch (IOException ex) {
+        close();
+        throw ex;
+      }
+    }
+
+    @Override
+    @Nullable
+    Line peek() {
+      return myNext;
+    }
+
+    @Override
+    @NotNull
+    Line poll() {
+      Line line = myNext;
+      assert line != null;
+      try {
+        myNext = read();
+      }
+      catch (IOException ex) {
+        getLogger().error(ex);
+        myNext = null;
+      }
+      return line;
+    }
+
+    @Override
+    void close() {
+      try {
+        myInput.close();
+      }
+      catch (IOException ignored) { }
+    }
+
+    @Nullable
+    private Line read() throws IOException {
+      long timestamp;
+      try {
+        timestamp = myInput.readLong();
+      }
+      catch (EOFException ex) {
+        return null;
+      }
+      byte[] bytes = new byte[myInput.readInt()];
+      myInput.readFully(bytes);
+      return new Line(timestamp, new String(bytes, StandardCharsets.UTF_8));
+    }
+  }
+}
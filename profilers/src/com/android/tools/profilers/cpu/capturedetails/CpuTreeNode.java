@@ -20,10 +20,16 @@ import com.android.tools.perflib.vmtrace.ClockType;
 import com.android.tools.profilers.cpu.CaptureNode;
 import com.android.tools.profilers.cpu.nodemodel.CaptureNodeModel;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
 
 public abstract class CpuTreeNode<T extends CpuTreeNode> {
+  /**
+   * Minimum number of nodes for which {@link #inRange(Range)} uses an index instead of checking every node.
+   */
+  private static final int MIN_INDEXED_NODES = 16;
+
   /**
    * References to {@link CaptureNode} that are used to extract information from to represent this CpuTreeNode,
    * such as {@link #getGlobalTotal()}, {@link #getGlobalChildrenTotal()}, etc...
@@ -37,6 +43,19 @@ public abstract class CpuTreeNode<T extends CpuTreeNode> {
   protected double myThreadTotal = 0;
   protected double myThreadChildrenTotal = 0;
 
+  /**
+   * Start times of {@link #myNodes} sorted in increasing order, built lazily for {@link #inRange(Range)} when there are many nodes.
+   */
+  private long[] mySortedStarts;
+  /**
+   * For each position of {@link #mySortedStarts}, the maximum end time of the nodes up to that position.
+   */
+  private long[] myMaxEnds;
+  /**
+   * The clock type the index was built with, as the start and end of the nodes depend on it.
+   */
+  private ClockType myIndexClockType;
+
   public CpuTreeNode(String id) {
     myId = id;
   }
@@ -47,6 +66,8 @@ public abstract class CpuTreeNode<T extends CpuTreeNode> {
 
   protected void addNode(@NotNull CaptureNode node) {
     myNodes.add(node);
+    mySortedStarts = null;
+    myMaxEnds = null;
   }
 
   protected void addNodes(@NotNull List<CaptureNode> nodes) {
@@ -105,7 +126,50 @@ public abstract class CpuTreeNode<T extends CpuTreeNode> {
   }
 
   public boolean inRange(Range range) {
-    return myNodes.stream().anyMatch(node -> node.getStart() < range.getMax() && range.getMin() < node.getEnd());
+    if (myNodes.size() < MIN_INDEXED_NODES) {
+      return myNodes.stream().anyMatch(node -> node.getStart() < range.getMax() && range.getMin() < node.getEnd());
+    }
+    buildIndexIfNeeded();
+    // The nodes starting before the end of the range are a prefix of the sorted starts. One of them intersects the range if the
+    // maximum end time of that prefix is after the start of the range.
+    int startingBefore = countStartsBefore(range.getMax());
+    return startingBefore > 0 && range.getMin() < myMaxEnds[startingBefore - 1];
+  }
+
+  private void buildIndexIfNeeded() {
+    ClockType clockType = myNodes.get(0).getClockType();
+    if (mySortedStarts != null && myIndexClockType == clockType) {
+      return;
+    }
+    List<CaptureNode> sorted = new ArrayList<>(myNodes);
+    sorted.sort(Comparator.comparingLong(CaptureNode::getStart));
+    mySortedStarts = new long[sorted.size()];
+    myMaxEnds = new long[sorted.size()];
+    long maxEnd = Long.MIN_VALUE;
+    for (int i = 0; i < sorted.size(); i++) {
+      mySortedStarts[i] = sorted.get(i).getStart();
+      maxEnd = Math.max(maxEnd, sorted.get(i).getEnd());
+      myMaxEnds[i] = maxEnd;
+    }
+    myIndexClockType = clockType;
+  }
+
+  /**
+   * Returns the number of nodes whose start time is strictly lower than the given time.
+   */
+  private int countStartsBefore(double time) {
+    int low = 0;
+    int high = mySortedStarts.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (mySortedStarts[mid] < time) {
+        low = mid + 1;
+      }
+      else {
+        high = mid;
+      }
+    }
+    return low;
   }
 
   public void reset() {
@@ -40,6 +40,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import org.jetbrains.annotations.NotNull;
 
@@ -118,6 +119,12 @@ public class SimpleperfTraceParser implements TraceParser {
    */
   private String myAppDataFolderPrefix;
 
+  /**
+   * Models already created for a call site. Large traces repeat the same call sites in most of their samples, so the nodes share the
+   * models instead of parsing the symbol name and holding a copy of it for each node.
+   */
+  private final Map<CallSite, CaptureNodeModel> myModels = new ConcurrentHashMap<>();
+
   public SimpleperfTraceParser() {
     myFiles = new HashMap<>();
     mySamples = new ArrayList<>();
@@ -301,10 +308,8 @@ public class SimpleperfTraceParser implements TraceParser {
     // Split the samples per thread.
     Map<Integer, List<SimpleperfReport.Sample>> threadSamples = splitSamplesPerThread();
 
-    // Process the samples for each thread
-    for (Map.Entry<Integer, List<SimpleperfReport.Sample>> threadSamplesEntry : threadSamples.entrySet()) {
-      parseThreadSamples(threadSamplesEntry.getKey(), threadSamplesEntry.getValue());
-    }
+    // Process the samples for each thread. The call trees of different threads don't depend on each other, so they are built in parallel.
+    threadSamples.entrySet().parallelStream().forEach(entry -> parseThreadSamples(entry.getKey(), entry.getValue()));
   }
 
   /**
@@ -335,7 +340,7 @@ public class SimpleperfTraceParser implements TraceParser {
   }
 
   /**
-   * Parses the list of samples of a thread into a {@link CaptureNode} tree.
+   * Parses the list of samples of a thread into a {@link CaptureNode} tree. May be called concurrently for different threads.
    */
   private void parseThreadSamples(int threadId, List<SimpleperfReport.Sample> threadSamples) {
     if (threadSamples.isEmpty()) {
@@ -352,7 +357,9 @@ public class SimpleperfTraceParser implements TraceParser {
     SimpleperfReport.Thread thread = myThreads.get(threadId);
     CaptureNode root = createCaptureNode(new SingleNameModel(thread.getThreadName()), firstTimestamp);
     root.setDepth(0);
-    myCaptureTrees.put(new CpuThreadInfo(threadId, thread.getThreadName(), threadId == thread.getProcessId()), root);
+    synchronized (myCaptureTrees) {
+      myCaptureTrees.put(new CpuThreadInfo(threadId, thread.getThreadName(), threadId == thread.getProcessId()), root);
+    }
 
     // Parse the first call chain so we have a value for lastCallchain
     List<SimpleperfReport.Sample.CallChainEntry> previousCallChain = Lists.reverse(threadSamples.get(0).getCallchainList());
@@ -458,6 +465,13 @@ public class SimpleperfTraceParser implements TraceParser {
   }
 
   private CaptureNodeModel methodModelFromCallchainEntry(SimpleperfReport.Sample.CallChainEntry callChainEntry, long parentVAddress) {
+    // Entries without a symbol are reported by their own address, the others by their symbol and the line of the parent that calls them.
+    long address = callChainEntry.getSymbolId() == INVALID_SYMBOL_ID ? callChainEntry.getVaddrInFile() : parentVAddress;
+    CallSite callSite = new CallSite(callChainEntry.getFileId(), callChainEntry.getSymbolId(), address);
+    return myModels.computeIfAbsent(callSite, site -> createMethodModel(callChainEntry, parentVAddress));
+  }
+
+  private CaptureNodeModel createMethodModel(SimpleperfReport.Sample.CallChainEntry callChainEntry, long parentVAddress) {
     int symbolId = callChainEntry.getSymbolId();
     SimpleperfReport.File symbolFile = myFiles.get(callChainEntry.getFileId());
     if (symbolFile == null) {
@@ -474,4 +488,33 @@ public class SimpleperfTraceParser implements TraceParser {
     boolean isUserWritten = symbolFile.getPath().startsWith(myAppDataFolderPrefix);
     return NodeNameParser.parseNodeName(symbolFile.getSymbol(symbolId), isUserWritten, symbolFile.getPath(), parentVAddress);
   }
+
+  private static final class CallSite {
+    private final int myFileId;
+    private final int mySymbolId;
+    private final long myAddress;
+
+    private CallSite(int fileId, int symbolId, long address) {
+      myFileId = fileId;
+      mySymbolId = symbolId;
+      myAddress = address;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CallSite)) {
+        return false;
+      }
+      CallSite other = (CallSite)o;
+      return myFileId == other.myFileId && mySymbolId == other.mySymbolId && myAddress == other.myAddress;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * myFileId + mySymbolId) + Long.hashCode(myAddress);
+    }
+  }
 }
@@ -63,6 +63,7 @@ import com.android.tools.profilers.event.EventMonitor;
 import com.android.tools.profilers.memory.adapters.CaptureObject;
 import com.android.tools.profilers.memory.adapters.ClassSet;
 import com.android.tools.profilers.memory.adapters.FieldObject;
+import com.android.tools.profilers.memory.adapters.HeapDumpSnapshotCache;
 import com.android.tools.profilers.memory.adapters.HeapSet;
 import com.android.tools.profilers.memory.adapters.InstanceObject;
 import com.android.tools.profilers.stacktrace.CodeLocation;
@@ -134,6 +135,7 @@ public class MemoryProfilerStage extends StreamingStage implements CodeNavigator
   private final DurationDataModel<CaptureDurationData<CaptureObject>> myHeapDumpDurations;
   private final DurationDataModel<CaptureDurationData<CaptureObject>> myAllocationDurations;
   private final CaptureObjectLoader myLoader;
+  private final HeapDumpSnapshotCache myHeapDumpSnapshotCache = new HeapDumpSnapshotCache();
   private final MemoryProfilerSelection mySelection;
   private final MemoryProfilerConfiguration myConfiguration;
   private final EventMonitor myEventMonitor;
@@ -316,12 +318,21 @@ public class MemoryProfilerStage extends StreamingStage implements CodeNavigator
     getStudioProfilers().getUpdater().unregister(myAllocationSamplingRateUpdatable);
     selectCaptureDuration(null, null);
     myLoader.stop();
+    myHeapDumpSnapshotCache.clear();
 
     getStudioProfilers().getIdeServices().getCodeNavigator().removeListener(this);
 
     myRangeSelectionModel.clearListeners();
   }
 
+  /**
+   * Returns the parsed heap dumps kept around for when they are opened again while this stage is active.
+   */
+  @NotNull
+  public HeapDumpSnapshotCache getHeapDumpSnapshotCache() {
+    return myHeapDumpSnapshotCache;
+  }
+
   @NotNull
   public RangeSelectionModel getRangeSelectionModel() {
     return myRangeSelectionModel;
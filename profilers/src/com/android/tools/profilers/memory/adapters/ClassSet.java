@@ -87,6 +87,12 @@ public class ClassSet extends ClassifierSet {
       return classSet;
     }
 
+    @NotNull
+    @Override
+    protected Classifier createEmptyClassifier() {
+      return new ClassClassifier();
+    }
+
     @NotNull
     @Override
     public List<ClassifierSet> getFilteredClassifierSets() {
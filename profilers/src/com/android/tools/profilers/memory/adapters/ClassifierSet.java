@@ -21,8 +21,10 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -270,6 +272,23 @@ public abstract class ClassifierSet implements MemoryObject {
     return instanceRemoved;
   }
 
+  /**
+   * Moves the instances and the accounting of {@code other}, an unpartitioned set built from a disjoint chunk of instances, into this set.
+   */
+  private void mergePartitionChunk(@NotNull ClassifierSet other) {
+    assert myClassifier == null && other.myClassifier == null;
+    mySnapshotInstances.addAll(other.mySnapshotInstances);
+    myDeltaInstances.addAll(other.myDeltaInstances);
+    mySnapshotObjectCount += other.mySnapshotObjectCount;
+    myDeltaAllocations += other.myDeltaAllocations;
+    myDeltaDeallocations += other.myDeltaDeallocations;
+    myTotalNativeSize += other.myTotalNativeSize;
+    myTotalShallowSize += other.myTotalShallowSize;
+    myTotalRetainedSize += other.myTotalRetainedSize;
+    myInstancesWithStackInfoCount += other.myInstancesWithStackInfoCount;
+    myNeedsRefiltering |= other.myNeedsRefiltering;
+  }
+
   public void clearClassifierSets() {
     mySnapshotInstances.clear();
     myDeltaInstances.clear();
@@ -479,6 +498,10 @@ public abstract class ClassifierSet implements MemoryObject {
    */
   @VisibleForTesting
   public static abstract class Classifier {
+    // Minimum number of instances each thread should classify when partitioning in parallel, so that the cost of merging the per-thread
+    // ClassifierSets stays small compared to the classification itself.
+    @VisibleForTesting static final int MIN_INSTANCES_PER_PARALLEL_CHUNK = 10000;
+
     public static final Classifier IDENTITY_CLASSIFIER = new Classifier() {
       @Override
       public boolean isTerminalClassifier() {
@@ -529,6 +552,15 @@ public abstract class ClassifierSet implements MemoryObject {
     @NotNull
     protected abstract List<ClassifierSet> getAllClassifierSets();
 
+    /**
+     * Creates an empty Classifier that uses the same strategy as this one, which {@link #partition(Collection, Collection)} uses to classify
+     * a chunk of the instances on another thread. Classifiers that return null are always partitioned on the calling thread.
+     */
+    @Nullable
+    protected Classifier createEmptyClassifier() {
+      return null;
+    }
+
     /**
      * Partitions {@link InstanceObject}s in {@code snapshotInstances} and {@code myDeltaInstances} according to the current
      * {@link ClassifierSet}'s strategy. This will consume the instances from the input.
@@ -538,24 +570,76 @@ public abstract class ClassifierSet implements MemoryObject {
         return;
       }
 
-      snapshotInstances.forEach(instance -> getClassifierSet(instance, true).addSnapshotInstanceObject(instance));
-      deltaInstances.forEach(instance -> {
-        if (instance.hasTimeData()) {
-          // Note - we only add the instance allocation to our delta set if it is not already accounted for in the baseline snapshot.
-          // Otherwise we would be double counting allocations.
-          if (instance.hasAllocTime() && !snapshotInstances.contains(instance)) {
-            getClassifierSet(instance, true).addDeltaInstanceObject(instance);
+      int chunkCount = Math.min(ForkJoinPool.getCommonPoolParallelism(),
+                                (snapshotInstances.size() + deltaInstances.size()) / MIN_INSTANCES_PER_PARALLEL_CHUNK);
+      if (chunkCount > 1 && createEmptyClassifier() != null) {
+        partitionInParallel(snapshotInstances, deltaInstances, chunkCount);
+      }
+      else {
+        snapshotInstances.forEach(this::classifySnapshotInstance);
+        deltaInstances.forEach(instance -> classifyDeltaInstance(instance, snapshotInstances));
+      }
+      snapshotInstances.clear();
+      deltaInstances.clear();
+    }
+
+    /**
+     * Classifies contiguous chunks of the instances into per-chunk Classifiers on the fork/join pool, then merges the resulting
+     * ClassifierSets back in chunk order so that the children and their instances end up in the same order as a sequential partition.
+     */
+    private void partitionInParallel(@NotNull Collection<InstanceObject> snapshotInstances,
+                                     @NotNull Collection<InstanceObject> deltaInstances,
+                                     int chunkCount) {
+      List<InstanceObject> instances = new ArrayList<>(snapshotInstances.size() + deltaInstances.size());
+      instances.addAll(snapshotInstances);
+      instances.addAll(deltaInstances);
+      int snapshotCount = snapshotInstances.size();
+      int chunkSize = (instances.size() + chunkCount - 1) / chunkCount;
+
+      List<Classifier> chunkClassifiers = IntStream.range(0, chunkCount).parallel().mapToObj(chunk -> {
+        Classifier classifier = createEmptyClassifier();
+        assert classifier != null;
+        int end = Math.min(instances.size(), (chunk + 1) * chunkSize);
+        for (int i = chunk * chunkSize; i < end; i++) {
+          if (i < snapshotCount) {
+            classifier.classifySnapshotInstance(instances.get(i));
           }
-          if (instance.hasDeallocTime()) {
-            getClassifierSet(instance, true).freeDeltaInstanceObject(instance);
+          else {
+            classifier.classifyDeltaInstance(instances.get(i), snapshotInstances);
           }
         }
-        else {
+        return classifier;
+      }).collect(Collectors.toList());
+
+      for (Classifier classifier : chunkClassifiers) {
+        for (ClassifierSet chunkSet : classifier.getAllClassifierSets()) {
+          // Every set created while classifying holds at least one instance, which also identifies the matching set in this Classifier.
+          InstanceObject instance = chunkSet.getInstancesStream().findFirst().orElseThrow(IllegalStateException::new);
+          ClassifierSet classifierSet = getClassifierSet(instance, true);
+          assert classifierSet != null;
+          classifierSet.mergePartitionChunk(chunkSet);
+        }
+      }
+    }
+
+    private void classifySnapshotInstance(@NotNull InstanceObject instance) {
+      getClassifierSet(instance, true).addSnapshotInstanceObject(instance);
+    }
+
+    private void classifyDeltaInstance(@NotNull InstanceObject instance, @NotNull Collection<InstanceObject> snapshotInstances) {
+      if (instance.hasTimeData()) {
+        // Note - we only add the instance allocation to our delta set if it is not already accounted for in the baseline snapshot.
+        // Otherwise we would be double counting allocations.
+        if (instance.hasAllocTime() && !snapshotInstances.contains(instance)) {
           getClassifierSet(instance, true).addDeltaInstanceObject(instance);
         }
-      });
-      snapshotInstances.clear();
-      deltaInstances.clear();
+        if (instance.hasDeallocTime()) {
+          getClassifierSet(instance, true).freeDeltaInstanceObject(instance);
+        }
+      }
+      else {
+        getClassifierSet(instance, true).addDeltaInstanceObject(instance);
+      }
     }
   }
 }
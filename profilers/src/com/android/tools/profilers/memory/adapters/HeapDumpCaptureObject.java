@@ -65,7 +65,6 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class HeapDumpCaptureObject implements CaptureObject {
-
   @NotNull
   private final ProfilerClient myClient;
 
@@ -199,27 +198,14 @@ public class HeapDumpCaptureObject implements CaptureObject {
 
   @Override
   public boolean load(@Nullable Range queryRange, @Nullable Executor queryJoiner) {
-    Transport.BytesResponse response = myClient.getTransportClient().getBytes(Transport.BytesRequest.newBuilder()
-                                                                                .setStreamId(mySession.getStreamId())
-                                                                                .setId(Long.toString(myHeapDumpInfo.getStartTime()))
-                                                                                .build());
-
-    if (response.getContents() == ByteString.EMPTY) {
+    HeapDumpSnapshotCache.Entry cachedSnapshot = getOrCreateSnapshot();
+    if (cachedSnapshot == null) {
       myIsLoadingError = true;
       return false;
     }
 
-    InMemoryBuffer buffer = new InMemoryBuffer(response.getContents().asReadOnlyByteBuffer());
-    Snapshot snapshot;
-    NativeRegistryPostProcessor nativeRegistryPostProcessor = new NativeRegistryPostProcessor();
-    if (myProguardMap != null) {
-      snapshot = Snapshot.createSnapshot(buffer, myProguardMap, Collections.singletonList(nativeRegistryPostProcessor));
-    }
-    else {
-      snapshot = Snapshot.createSnapshot(buffer, new ProguardMap(), Collections.singletonList(nativeRegistryPostProcessor));
-    }
-    snapshot.computeDominators();
-    myHasNativeAllocations = nativeRegistryPostProcessor.getHasNativeAllocations();
+    Snapshot snapshot = cachedSnapshot.getSnapshot();
+    myHasNativeAllocations = cachedSnapshot.getHasNativeAllocations();
     mySnapshot = snapshot;
 
     Map<Heap, HeapSet> heapSets = new HashMap<>(snapshot.getHeaps().size());
@@ -236,6 +222,13 @@ public class HeapDumpCaptureObject implements CaptureObject {
       }
     }
 
+    // Size the index up front, so that it doesn't get rehashed over and over for heap dumps with millions of instances.
+    int objectCount = 0;
+    for (Heap heap : snapshot.getHeaps()) {
+      objectCount += heap.getClasses().size() + heap.getInstancesCount();
+    }
+    myInstanceIndex.ensureCapacity(objectCount);
+
     InstanceObject finalJavaLangClassObject = javaLangClassObject;
     for (Heap heap : snapshot.getHeaps()) {
       HeapSet heapSet = heapSets.get(heap);
@@ -247,16 +240,22 @@ public class HeapDumpCaptureObject implements CaptureObject {
       });
     }
 
+    // Register each class once and share its entry between all its instances, instead of creating an entry (with its split package
+    // name) for every single instance.
+    TLongObjectHashMap<ClassDb.ClassEntry> classEntries = new TLongObjectHashMap<>();
     for (Heap heap : snapshot.getHeaps()) {
       HeapSet heapSet = heapSets.get(heap);
       heap.forEachInstance(instance -> {
         assert !JAVA_LANG_CLASS.equals(instance.getClassObj().getClassName());
 
         ClassObj classObj = instance.getClassObj();
-        ClassDb.ClassEntry classEntry =
-          classObj.getSuperClassObj() != null ?
-          myClassDb.registerClass(classObj.getId(), classObj.getSuperClassObj().getId(), classObj.getClassName()) :
-          myClassDb.registerClass(classObj.getId(), classObj.getClassName());
+        ClassDb.ClassEntry classEntry = classEntries.get(classObj.getId());
+        if (classEntry == null) {
+          classEntry = classObj.getSuperClassObj() != null ?
+                       myClassDb.registerClass(classObj.getId(), classObj.getSuperClassObj().getId(), classObj.getClassName()) :
+                       myClassDb.registerClass(classObj.getId(), classObj.getClassName());
+          classEntries.put(classObj.getId(), classEntry);
+        }
         InstanceObject instanceObject = new HeapDumpInstanceObject(this, instance, classEntry, null);
         assert !myInstanceIndex.containsKey(instance.getId());
         myInstanceIndex.put(instance.getId(), instanceObject);
@@ -280,6 +279,34 @@ public class HeapDumpCaptureObject implements CaptureObject {
     return true;
   }
 
+  /**
+   * Returns the parsed snapshot of the heap dump, reusing the one parsed when the same heap dump was last opened in this stage with the
+   * same proguard map, so that its contents aren't downloaded again. Returns null if the heap dump contents are not available.
+   */
+  @Nullable
+  private HeapDumpSnapshotCache.Entry getOrCreateSnapshot() {
+    HeapDumpSnapshotCache cache = myStage.getHeapDumpSnapshotCache();
+    HeapDumpSnapshotCache.Entry cachedSnapshot = cache.get(mySession, myHeapDumpInfo, myProguardMap);
+    if (cachedSnapshot != null) {
+      return cachedSnapshot;
+    }
+
+    Transport.BytesResponse response = myClient.getTransportClient().getBytes(Transport.BytesRequest.newBuilder()
+                                                                                .setStreamId(mySession.getStreamId())
+                                                                                .setId(Long.toString(myHeapDumpInfo.getStartTime()))
+                                                                                .build());
+    if (response.getContents() == ByteString.EMPTY) {
+      return null;
+    }
+
+    InMemoryBuffer buffer = new InMemoryBuffer(response.getContents().asReadOnlyByteBuffer());
+    NativeRegistryPostProcessor nativeRegistryPostProcessor = new NativeRegistryPostProcessor();
+    Snapshot snapshot = Snapshot.createSnapshot(buffer, myProguardMap != null ? myProguardMap : new ProguardMap(),
+                                                Collections.singletonList(nativeRegistryPostProcessor));
+    snapshot.computeDominators();
+    return cache.put(mySession, myHeapDumpInfo, myProguardMap, snapshot, nativeRegistryPostProcessor.getHasNativeAllocations());
+  }
+
   @Override
   public boolean isDoneLoading() {
     return mySnapshot != null || myIsLoadingError;
@@ -423,4 +450,4 @@ public class HeapDumpCaptureObject implements CaptureObject {
                                                                                 .build());
     return MemoryProfilerStage.canSafelyLoadHprof(response.getSerializedSize());
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.android.tools.profilers.memory.adapters;
+
+import com.android.tools.perflib.heap.Snapshot;
+import com.android.tools.profiler.proto.Common;
+import com.android.tools.profiler.proto.Memory.HeapDumpInfo;
+import com.android.tools.proguard.ProguardMap;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Parsed snapshots, with their dominators computed, of the heap dumps opened recently, so that going back to one of them neither
+ * downloads nor parses it again. The cache belongs to a memory stage and is cleared when the stage is exited, which also happens when
+ * the selected session changes.
+ */
+public final class HeapDumpSnapshotCache {
+  /**
+   * Maximum number of parsed heap dumps kept around. Snapshots of large heap dumps take a lot of memory, so only a couple of them are
+   * kept, the one being looked at being one of them.
+   */
+  private static final int MAX_CACHED_SNAPSHOTS = 2;
+
+  private final Map<Key, Entry> myEntries = new LinkedHashMap<Key, Entry>(MAX_CACHED_SNAPSHOTS, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+      return size() > MAX_CACHED_SNAPSHOTS;
+    }
+  };
+
+  /**
+   * Returns the snapshot cached for the given heap dump, or null if there is none or it was parsed from a different version of the heap
+   * dump or with a different proguard map.
+   */
+  @Nullable
+  synchronized Entry get(@NotNull Common.Session session, @NotNull HeapDumpInfo info, @Nullable ProguardMap proguardMap) {
+    Key key = new Key(session.getSessionId(), info.getStartTime());
+    Entry entry = myEntries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (!entry.myInfo.equals(info) || entry.myProguardMap != proguardMap) {
+      myEntries.remove(key);
+      return null;
+    }
+    return entry;
+  }
+
+  @NotNull
+  synchronized Entry put(@NotNull Common.Session session,
+                         @NotNull HeapDumpInfo info,
+                         @Nullable ProguardMap proguardMap,
+                         @NotNull Snapshot snapshot,
+                         boolean hasNativeAllocations) {
+    Entry entry = new Entry(info, proguardMap, snapshot, hasNativeAllocations);
+    myEntries.put(new Key(session.getSessionId(), info.getStartTime()), entry);
+    return entry;
+  }
+
+  public synchronized void clear() {
+    myEntries.clear();
+  }
+
+  @VisibleForTesting
+  synchronized int size() {
+    return myEntries.size();
+  }
+
+  private static final class Key {
+    private final long mySessionId;
+    private final long myStartTime;
+
+    private Key(long sessionId, long startTime) {
+      mySessionId = sessionId;
+      myStartTime = startTime;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key)obj;
+      return mySessionId == other.mySessionId && myStartTime == other.myStartTime;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(mySessionId) * 31 + Long.hashCode(myStartTime);
+    }
+  }
+
+  static final class Entry {
+    @NotNull private final HeapDumpInfo myInfo;
+    @Nullable private final ProguardMap myProguardMap;
+    @NotNull private final Snapshot mySnapshot;
+    private final boolean myHasNativeAllocations;
+
+    private Entry(@NotNull HeapDumpInfo info, @Nullable ProguardMap proguardMap, @NotNull Snapshot snapshot, boolean hasNativeAllocations) {
+      myInfo = info;
+      myProguardMap = proguardMap;
+      mySnapshot = snapshot;
+      myHasNativeAllocations = hasNativeAllocations;
+    }
+
+    @NotNull
+    Snapshot getSnapshot() {
+      return mySnapshot;
+    }
+
+    boolean getHasNativeAllocations() {
+      return myHasNativeAllocations;
+    }
+  }
+}
@@ -86,6 +86,14 @@ public class LiveAllocationCaptureObject implements CaptureObject {
   // In perfa, the batched samples are sent in 500ms but can take time to arrive. 5 seconds should be more than enough as a buffer.
   private static final long QUERY_BUFFER_NS = TimeUnit.SECONDS.toNanos(5);
 
+  // Interval at which the set of live instances is checkpointed, so that a snapshot query only needs to replay the events since the
+  // nearest checkpoint instead of every event since the start of the session.
+  private static final long INSTANCE_CHECKPOINT_INTERVAL_NS = TimeUnit.MINUTES.toNanos(1);
+
+  // Maximum number of instance checkpoints. Past it, every other checkpoint is dropped and the interval doubled, so that long sessions
+  // don't keep one copy of the live instances per minute.
+  @VisibleForTesting static final int MAX_INSTANCE_CHECKPOINTS = 32;
+
   @VisibleForTesting static final String SAMPLING_INFO_MESSAGE = "Selected region does not have full tracking. Data may be inaccurate.";
 
   @Nullable private MemoryProfilerStage myStage;
@@ -99,6 +107,8 @@ public class LiveAllocationCaptureObject implements CaptureObject {
   private final TLongObjectHashMap<AllocationStack.StackFrame> myMethodIdMap;
   private final TIntObjectHashMap<ThreadId> myThreadIdMap;
   private final TreeMap<Long, Memory.MemoryMap.MemoryRegion> myJniMemoryRegionMap;
+  // Mapping from checkpoint time to the allocations, in allocation order, of the instances that are alive at that time.
+  private final TreeMap<Long, LiveAllocation[]> myInstanceCheckpoints;
 
   private final ProfilerClient myClient;
   private final Common.Session mySession;
@@ -113,6 +123,8 @@ public class LiveAllocationCaptureObject implements CaptureObject {
   // Keeps track of the latest sample's timestamp we have queried thus far.
   private long myLastSeenTimestampNs = Long.MIN_VALUE;
 
+  private long myInstanceCheckpointIntervalNs = INSTANCE_CHECKPOINT_INTERVAL_NS;
+
   private Range myQueryRange;
 
   private Future myCurrentTask;
@@ -137,6 +149,7 @@ public class LiveAllocationCaptureObject implements CaptureObject {
     myMethodIdMap = new TLongObjectHashMap<>();
     myThreadIdMap = new TIntObjectHashMap<>();
     myJniMemoryRegionMap = new TreeMap<>();
+    myInstanceCheckpoints = new TreeMap<>();
 
     myClient = client;
     mySession = session;
@@ -488,45 +501,118 @@ public class LiveAllocationCaptureObject implements CaptureObject {
     return result;
   }
 
+  @VisibleForTesting
+  void setInstanceCheckpointIntervalNs(long intervalNs) {
+    myInstanceCheckpointIntervalNs = intervalNs;
+  }
+
+  @VisibleForTesting
+  int getInstanceCheckpointCount() {
+    return myInstanceCheckpoints.size();
+  }
+
   /**
    * Populates the input list with all instance objects that are alive at |snapshotTimeNs|.
    */
   private void queryJavaInstanceSnapshot(long snapshotTimeNs, @NotNull List<InstanceObject> snapshotList) {
-    // Retrieve all the event samples from the start of the session until the snapshot time.
-    long sessionStartNs = mySession.getStartTimestamp();
-    List<Memory.BatchAllocationEvents> eventsList = getAllocationEvents(sessionStartNs, snapshotTimeNs);
-    Map<Integer, LiveAllocationInstanceObject> liveInstanceMap = new LinkedHashMap<>();
+    // Start from the nearest checkpoint at or before the snapshot time, or from the start of the session if there is none yet.
+    long replayStartNs = mySession.getStartTimestamp();
+    Map<Integer, LiveAllocation> liveAllocations = new LinkedHashMap<>();
+    Map.Entry<Long, LiveAllocation[]> checkpoint = myInstanceCheckpoints.floorEntry(snapshotTimeNs);
+    if (checkpoint != null) {
+      replayStartNs = checkpoint.getKey();
+      for (LiveAllocation allocation : checkpoint.getValue()) {
+        liveAllocations.put(allocation.myTag, allocation);
+      }
+    }
+
+    // Retrieve the event samples from the checkpoint until the snapshot time.
+    List<Memory.BatchAllocationEvents> eventsList = getAllocationEvents(replayStartNs, snapshotTimeNs);
+    List<AllocationEvent> replayEvents = new ArrayList<>();
+    // Samples can take up to QUERY_BUFFER_NS to arrive, so only checkpoint times that far behind the latest sample are known to be
+    // complete.
+    long checkpointLimitNs = Long.MIN_VALUE;
     for (Memory.BatchAllocationEvents events : eventsList) {
-      // Only consider events up to but excluding the snapshot time.
-      Iterator<AllocationEvent> itr = events.getEventsList().stream().filter(evt -> evt.getTimestamp() < snapshotTimeNs)
-        .sorted(Comparator.comparingLong(AllocationEvent::getTimestamp)).iterator();
-      while (itr.hasNext()) {
-        AllocationEvent event = itr.next();
-        LiveAllocationInstanceObject instance;
-        switch (event.getEventCase()) {
-          case ALLOC_DATA:
-            // Allocation - create an InstanceObject. This might be removed later if there is a corresponding FREE_DATA event.
-            AllocationEvent.Allocation allocation = event.getAllocData();
-            instance = getOrCreateInstanceObject(allocation.getTag(), allocation.getClassTag(), allocation.getStackId(),
-                                                 allocation.getThreadId(), allocation.getSize(), allocation.getHeapId());
-            instance.setAllocationTime(event.getTimestamp());
-            liveInstanceMap.put(allocation.getTag(), instance);
-            break;
-          case FREE_DATA:
-            // Deallocation - there should be a matching InstanceObject.
-            AllocationEvent.Deallocation deallocation = event.getFreeData();
-            liveInstanceMap.remove(deallocation.getTag());
-            // Don't keep deallocated objects around in the cache to avoid bloating memory.
-            myInstanceMap.remove(deallocation.getTag());
-            break;
-          case CLASS_DATA:
-            // ignore CLASS_DATA as they are handled via context updates.
-            break;
+      checkpointLimitNs = Math.max(checkpointLimitNs, events.getTimestamp() - QUERY_BUFFER_NS);
+      // Only consider events from the checkpoint up to but excluding the snapshot time.
+      for (AllocationEvent event : events.getEventsList()) {
+        if (event.getTimestamp() >= replayStartNs && event.getTimestamp() < snapshotTimeNs) {
+          replayEvents.add(event);
         }
       }
     }
+    replayEvents.sort(Comparator.comparingLong(AllocationEvent::getTimestamp));
+
+    long nextCheckpointNs = getNextCheckpointTime(replayStartNs);
+    for (AllocationEvent event : replayEvents) {
+      nextCheckpointNs = addInstanceCheckpoints(nextCheckpointNs, event.getTimestamp(), checkpointLimitNs, liveAllocations);
+      switch (event.getEventCase()) {
+        case ALLOC_DATA:
+          // Allocation - track the event. This might be removed later if there is a corresponding FREE_DATA event.
+          liveAllocations.put(event.getAllocData().getTag(), new LiveAllocation(event));
+          break;
+        case FREE_DATA:
+          // Deallocation - there should be a matching allocation event.
+          AllocationEvent.Deallocation deallocation = event.getFreeData();
+          liveAllocations.remove(deallocation.getTag());
+          // Don't keep deallocated objects around in the cache to avoid bloating memory.
+          myInstanceMap.remove(deallocation.getTag());
+          break;
+        case CLASS_DATA:
+          // ignore CLASS_DATA as they are handled via context updates.
+          break;
+      }
+    }
+    addInstanceCheckpoints(nextCheckpointNs, snapshotTimeNs, checkpointLimitNs, liveAllocations);
+
+    // Only create InstanceObjects for the allocations that are still alive at the snapshot time.
+    for (LiveAllocation allocation : liveAllocations.values()) {
+      LiveAllocationInstanceObject instance =
+        getOrCreateInstanceObject(allocation.myTag, allocation.myClassTag, allocation.myStackId, allocation.myThreadId, allocation.mySize,
+                                  allocation.myHeapId);
+      instance.setAllocationTime(allocation.myTimestamp);
+      snapshotList.add(instance);
+    }
+  }
 
-    snapshotList.addAll(liveInstanceMap.values());
+  /**
+   * Records a checkpoint of |liveAllocations| at every checkpoint time from |nextCheckpointNs| up to and including |timeNs|, skipping the
+   * ones past |limitNs| as their events may not have all arrived yet.
+   *
+   * @return the next checkpoint time after |timeNs|.
+   */
+  private long addInstanceCheckpoints(long nextCheckpointNs,
+                                      long timeNs,
+                                      long limitNs,
+                                      @NotNull Map<Integer, LiveAllocation> liveAllocations) {
+    while (nextCheckpointNs <= timeNs) {
+      if (nextCheckpointNs <= limitNs && !myInstanceCheckpoints.containsKey(nextCheckpointNs)) {
+        // The allocations are shared with the other checkpoints they are alive at, so each checkpoint only costs an array of references.
+        myInstanceCheckpoints.put(nextCheckpointNs, liveAllocations.values().toArray(new LiveAllocation[0]));
+        if (myInstanceCheckpoints.size() > MAX_INSTANCE_CHECKPOINTS) {
+          thinOutInstanceCheckpoints();
+        }
+      }
+      nextCheckpointNs = getNextCheckpointTime(nextCheckpointNs);
+    }
+    return nextCheckpointNs;
+  }
+
+  /**
+   * Returns the first checkpoint time after |timeNs|. Checkpoint times are multiples of the checkpoint interval since the session start.
+   */
+  private long getNextCheckpointTime(long timeNs) {
+    long sessionStartNs = mySession.getStartTimestamp();
+    return sessionStartNs + ((timeNs - sessionStartNs) / myInstanceCheckpointIntervalNs + 1) * myInstanceCheckpointIntervalNs;
+  }
+
+  /**
+   * Doubles the checkpoint interval and drops the checkpoints which are no longer at a checkpoint time, halving their number.
+   */
+  private void thinOutInstanceCheckpoints() {
+    myInstanceCheckpointIntervalNs *= 2;
+    long sessionStartNs = mySession.getStartTimestamp();
+    myInstanceCheckpoints.keySet().removeIf(timeNs -> (timeNs - sessionStartNs) % myInstanceCheckpointIntervalNs != 0);
   }
 
   private void queryJniReferencesSnapshot(long snapshotTimeNs, @NotNull List<InstanceObject> snapshotList) {
@@ -838,4 +924,29 @@ public class LiveAllocationCaptureObject implements CaptureObject {
     }
     return eventList;
   }
+
+  /**
+   * The data of an allocation needed to create its instance object. Much smaller than the allocation event it comes from, which matters
+   * as the instance checkpoints hold on to every allocation alive at their times.
+   */
+  private static final class LiveAllocation {
+    private final int myTag;
+    private final int myClassTag;
+    private final int myStackId;
+    private final int myThreadId;
+    private final int myHeapId;
+    private final long mySize;
+    private final long myTimestamp;
+
+    private LiveAllocation(@NotNull AllocationEvent event) {
+      AllocationEvent.Allocation allocation = event.getAllocData();
+      myTag = allocation.getTag();
+      myClassTag = allocation.getClassTag();
+      myStackId = allocation.getStackId();
+      myThreadId = allocation.getThreadId();
+      myHeapId = allocation.getHeapId();
+      mySize = allocation.getSize();
+      myTimestamp = event.getTimestamp();
+    }
+  }
 }
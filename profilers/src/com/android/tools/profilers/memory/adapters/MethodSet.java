@@ -99,6 +99,12 @@ public class MethodSet extends ClassifierSet {
       return classSet;
     }
 
+    @NotNull
+    @Override
+    protected Classifier createEmptyClassifier() {
+      return new MethodClassifier(myCaptureObject, myDepth);
+    }
+
     @Nullable
     private MethodSetInfo getMethodInfo(@NotNull InstanceObject instance) {
       int stackDepth = instance.getCallStackDepth();
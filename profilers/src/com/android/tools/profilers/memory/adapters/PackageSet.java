@@ -82,6 +82,12 @@ public class PackageSet extends ClassifierSet {
       }
     }
 
+    @NotNull
+    @Override
+    protected Classifier createEmptyClassifier() {
+      return new PackageClassifier(myCaptureObject, myPackageNameIndex);
+    }
+
     @NotNull
     @Override
     public List<ClassifierSet> getFilteredClassifierSets() {
@@ -83,6 +83,12 @@ public class ThreadSet extends ClassifierSet {
       }
     }
 
+    @NotNull
+    @Override
+    protected Classifier createEmptyClassifier() {
+      return new ThreadClassifier(myCaptureObject);
+    }
+
     @NotNull
     @Override
     public List<ClassifierSet> getFilteredClassifierSets() {
@@ -56,8 +56,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
@@ -137,6 +139,17 @@ public class SessionsManager extends AspectModel<SessionAspect> {
   @NotNull
   private final List<ArtifactFetcher> myArtifactsFetchers;
 
+  /**
+   * Ids of the sessions recorded by a previous run and restored from the datastore. They are listed without being selected, so their data
+   * is only loaded once the user selects one of them, and as they can no longer change their artifacts are only fetched once.
+   */
+  @NotNull private final Set<Long> myRestoredSessionIds = new HashSet<>();
+
+  /**
+   * Time this manager was created, sessions that started before were recorded by a previous run.
+   */
+  private final long myCreationTimeEpochMs = System.currentTimeMillis();
+
   /**
    * Cache the EventStreamServers that were created for imported streams so events and bytes can be added at a later time if desired.
    */
@@ -257,9 +270,15 @@ public class SessionsManager extends AspectModel<SessionAspect> {
       }
 
       // We found a new session we process it and update our internal state.
-      if (sessionItem == null) {
+      boolean isNewSession = sessionItem == null;
+      if (isNewSession) {
         sessionItem = processSessionStarted(startEvent);
         sessionStateChanged = true;
+        if (group.getEventsCount() == 2 &&
+            sessionItem.getSessionMetaData().getType() == Common.SessionMetaData.SessionType.FULL &&
+            sessionItem.getSessionMetaData().getStartTimestampEpochMs() < myCreationTimeEpochMs) {
+          myRestoredSessionIds.add(sessionItem.getSession().getSessionId());
+        }
       }
       // If we ended a session we process that end here.
       if (group.getEventsCount() == 2 && sessionItem.isOngoing()) {
@@ -267,7 +286,8 @@ public class SessionsManager extends AspectModel<SessionAspect> {
         sessionItem.setSession(session);
         sessionStateChanged = true;
       }
-      if (sessionStateChanged) {
+      boolean isRestoredSession = myRestoredSessionIds.contains(sessionItem.getSession().getSessionId());
+      if (sessionStateChanged && !isRestoredSession) {
         setSessionInternal(sessionItem.getSession());
         if (sessionItem.isOngoing()) {
           setProfilingSession(sessionItem.getSession());
@@ -276,9 +296,10 @@ public class SessionsManager extends AspectModel<SessionAspect> {
       }
       final SessionItem item = sessionItem;
       sessionArtifacts.add(item);
-      List<SessionArtifact> artifacts = new ArrayList<>();
-      myArtifactsFetchers.forEach(fetcher -> artifacts.addAll(fetcher.fetch(myProfilers, item.getSession(), item.getSessionMetaData())));
-      item.setChildArtifacts(artifacts);
+      if (isNewSession || !isRestoredSession) {
+        item.setChildArtifacts(fetchChildArtifacts(item));
+      }
+      List<SessionArtifact> artifacts = item.getChildArtifacts();
       if (item.getSessionMetaData().getType() == Common.SessionMetaData.SessionType.FULL) {
         sessionArtifacts.addAll(artifacts);
       }
@@ -295,6 +316,13 @@ public class SessionsManager extends AspectModel<SessionAspect> {
     }
   }
 
+  @NotNull
+  private List<SessionArtifact> fetchChildArtifacts(@NotNull SessionItem item) {
+    List<SessionArtifact> artifacts = new ArrayList<>();
+    myArtifactsFetchers.forEach(fetcher -> artifacts.addAll(fetcher.fetch(myProfilers, item.getSession(), item.getSessionMetaData())));
+    return artifacts;
+  }
+
   /**
    * Create a {@link Common.Session}, {@link Common.SessionMetaData}, and {@link SessionItem} for a given event with
    * {@link Common.SessionData.SessionStarted} data.
@@ -514,6 +542,7 @@ public class SessionsManager extends AspectModel<SessionAspect> {
     // TODO b/141261422 the main update loop does not handle removing items at the moment. For now we manually remove the SessionItem and
     // force an update so any artifacts (e.g. heap dump, cpu captures) are also removed from being displayed.
     mySessionItems.remove(session.getSessionId());
+    myRestoredSessionIds.remove(session.getSessionId());
     updateSessionItems(Collections.emptyList());
   }
 
@@ -85,6 +85,22 @@ public class CaptureNodeTest {
     assertThat(visualParent.getChildAt(0)).isEqualTo(childA);
   }
 
+  @Test
+  public void addManyChildren() {
+    CaptureNode parent = new CaptureNode(new StubCaptureNodeModel());
+    assertThat(parent.getChildren()).isEmpty();
+    assertThat(parent.getChildCount()).isEqualTo(0);
+
+    List<CaptureNode> children = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      CaptureNode child = new CaptureNode(new StubCaptureNodeModel());
+      children.add(child);
+      parent.addChild(child);
+    }
+    assertThat(parent.getChildren()).containsExactlyElementsIn(children).inOrder();
+    assertThat(children.get(4).getParent()).isEqualTo(parent);
+  }
+
   @Test
   public void testFilter() {
     CaptureNode node = createFilterTestTree();
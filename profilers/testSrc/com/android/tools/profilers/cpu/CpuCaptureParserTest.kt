@@ -95,6 +95,57 @@ class CpuCaptureParserTest {
     assertThat(secondParsedCapture).isEqualTo(firstParsedCapture)
   }
 
+  @Test
+  fun previousCapturesAreKeptWhileMemoryIsAvailable() {
+    val parser = CpuCaptureParser(FakeIdeProfilerServices())
+    val traceBytes = CpuProfilerTestUtils.traceFileToByteString("valid_trace.trace")
+    val firstCapture = parser.parse(ProfilersTestData.SESSION_DATA, ANY_TRACE_ID, traceBytes, Cpu.CpuTraceType.ART)!!
+    firstCapture.get()
+    val secondCapture = parser.parse(ProfilersTestData.SESSION_DATA, ANY_TRACE_ID + 1, traceBytes, Cpu.CpuTraceType.ART)!!
+    secondCapture.get()
+
+    // The first capture is only softly reachable now, but it hasn't been collected, so it is returned without being parsed again.
+    assertThat(parser.getCapture(ANY_TRACE_ID)).isSameAs(firstCapture)
+    assertThat(parser.parse(ProfilersTestData.SESSION_DATA, ANY_TRACE_ID, traceBytes, Cpu.CpuTraceType.ART)).isSameAs(firstCapture)
+    assertThat(parser.getCapture(ANY_TRACE_ID + 1)).isSameAs(secondCapture)
+  }
+
+  @Test
+  fun onlyTheLastAccessedCaptureIsStronglyReachable() {
+    val parser = CpuCaptureParser(FakeIdeProfilerServices())
+    val traceBytes = CpuProfilerTestUtils.traceFileToByteString("valid_trace.trace")
+    val firstCapture = parser.parse(ProfilersTestData.SESSION_DATA, ANY_TRACE_ID, traceBytes, Cpu.CpuTraceType.ART)!!
+    firstCapture.get()
+    parser.parse(ProfilersTestData.SESSION_DATA, ANY_TRACE_ID + 1, traceBytes, Cpu.CpuTraceType.ART)!!.get()
+
+    // Going back to the first capture makes the second one evictable.
+    assertThat(parser.getCapture(ANY_TRACE_ID)).isSameAs(firstCapture)
+    parser.clearEvictableCaptureReferences()
+    assertThat(parser.getCapture(ANY_TRACE_ID + 1)).isNull()
+    assertThat(parser.getCapture(ANY_TRACE_ID)).isSameAs(firstCapture)
+  }
+
+  @Test
+  fun reparsingCollectedCaptureDoesNotReportMetrics() {
+    val services = FakeIdeProfilerServices()
+    val fakeFeatureTracker = services.featureTracker as FakeFeatureTracker
+    val parser = CpuCaptureParser(services)
+    val traceBytes = CpuProfilerTestUtils.traceFileToByteString("valid_trace.trace")
+    val firstCapture = parser.parse(ProfilersTestData.SESSION_DATA, ANY_TRACE_ID, traceBytes, Cpu.CpuTraceType.ART)!!
+    firstCapture.get()
+    parser.parse(ProfilersTestData.SESSION_DATA, ANY_TRACE_ID + 1, traceBytes, Cpu.CpuTraceType.ART)!!.get()
+    assertThat(fakeFeatureTracker.lastCpuCaptureMetadata).isNotNull()
+    fakeFeatureTracker.resetLastCpuCaptureMetadata()
+
+    // The first capture gets collected, so selecting it again parses its trace again.
+    parser.clearEvictableCaptureReferences()
+    assertThat(parser.getCapture(ANY_TRACE_ID)).isNull()
+    val reparsedCapture = parser.parse(ProfilersTestData.SESSION_DATA, ANY_TRACE_ID, traceBytes, Cpu.CpuTraceType.ART)!!
+    assertThat(reparsedCapture).isNotSameAs(firstCapture)
+    checkValidCapture(reparsedCapture.get())
+    assertThat(fakeFeatureTracker.lastCpuCaptureMetadata).isNull()
+  }
+
   @Test
   fun parsingAValidSimpleperfTraceShouldProduceCpuCapture() {
     val parser = CpuCaptureParser(FakeIdeProfilerServices())
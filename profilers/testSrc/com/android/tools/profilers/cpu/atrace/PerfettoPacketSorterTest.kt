@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.android.tools.profilers.cpu.atrace
+
+import com.google.common.truth.Truth.assertThat
+import com.intellij.openapi.util.io.FileUtil
+import org.junit.Test
+
+class PerfettoPacketSorterTest {
+  @Test
+  fun linesAreSortedInMemory() {
+    val sorter = PerfettoPacketSorter()
+    sorter.addLine(30, "c")
+    sorter.addLine(10, "a")
+    sorter.addLine(20, "b")
+    sorter.resetForIterator()
+
+    assertThat(sorter.asSequence().toList()).containsExactly("a", "b", "c").inOrder()
+    assertThat(sorter.spilledRunCount).isEqualTo(0)
+    sorter.close()
+  }
+
+  @Test
+  fun spilledRunsAreMerged() {
+    // A budget this small spills every couple of lines to disk.
+    val sorter = PerfettoPacketSorter(200)
+    val timestamps = listOf(50L, 10L, 40L, 20L, 30L, 60L, 0L, 70L, 25L)
+    for (timestamp in timestamps) {
+      sorter.addLine(timestamp, "line $timestamp")
+    }
+    sorter.resetForIterator()
+
+    assertThat(sorter.spilledRunCount).isGreaterThan(1)
+    assertThat(sorter.asSequence().toList()).containsExactlyElementsIn(timestamps.sorted().map { "line $it" }).inOrder()
+    sorter.close()
+  }
+
+  @Test
+  fun linesWithSameTimestampKeepTheirOrder() {
+    val sorter = PerfettoPacketSorter(200)
+    for (i in 0 until 10) {
+      sorter.addLine(if (i % 2 == 0) 1L else 0L, "line $i")
+    }
+    sorter.resetForIterator()
+
+    assertThat(sorter.asSequence().toList())
+      .containsExactly("line 1", "line 3", "line 5", "line 7", "line 9", "line 0", "line 2", "line 4", "line 6", "line 8").inOrder()
+    sorter.close()
+  }
+
+  @Test
+  fun unreadableRunDoesNotDropTheOtherRuns() {
+    val sorter = PerfettoPacketSorter(200)
+    for (timestamp in 0L until 10L) {
+      sorter.addLine(timestamp, "line $timestamp")
+    }
+    assertThat(sorter.spilledRunCount).isGreaterThan(1)
+    // Lose the first run, which holds the earliest lines.
+    assertThat(sorter.spilledRunFiles[0].delete()).isTrue()
+    sorter.resetForIterator()
+
+    val lines = sorter.asSequence().toList()
+    assertThat(lines).containsAllOf("line 3", "line 9")
+    assertThat(lines).doesNotContain("line 0")
+    assertThat(lines).isOrdered(compareBy<String> { it.removePrefix("line ").toLong() })
+    sorter.close()
+  }
+
+  @Test
+  fun linesAreIgnoredAfterClose() {
+    val sorter = PerfettoPacketSorter()
+    sorter.addLine(10, "a")
+    sorter.close()
+    sorter.addLine(20, "b")
+    sorter.resetForIterator()
+
+    assertThat(sorter.hasNext()).isFalse()
+  }
+
+  @Test
+  fun linesAreKeptInMemoryOnceSpillingFails() {
+    // Run files can't be created in a directory that is actually a file.
+    val runDirectory = FileUtil.createTempFile("perfetto", "not-a-directory", true)
+    val sorter = PerfettoPacketSorter(200, runDirectory)
+    for (timestamp in 0L until 5L) {
+      sorter.addLine(timestamp, "line $timestamp")
+    }
+    // Spilling isn't attempted again, even once it could succeed.
+    FileUtil.delete(runDirectory)
+    assertThat(runDirectory.mkdir()).isTrue()
+    for (timestamp in 5L until 10L) {
+      sorter.addLine(timestamp, "line $timestamp")
+    }
+    sorter.resetForIterator()
+
+    assertThat(sorter.spilledRunCount).isEqualTo(0)
+    assertThat(runDirectory.list()).isEmpty()
+    assertThat(sorter.asSequence().toList()).containsExactlyElementsIn((0L until 10L).map { "line $it" }).inOrder()
+    sorter.close()
+  }
+}
@@ -16,6 +16,7 @@
 package com.android.tools.profilers.cpu.capturedetails;
 
 import com.android.tools.adtui.model.Range;
+import com.android.tools.perflib.vmtrace.ClockType;
 import com.android.tools.profilers.cpu.CaptureNode;
 import com.android.tools.profilers.cpu.nodemodel.JavaMethodModel;
 import com.android.tools.profilers.cpu.nodemodel.CaptureNodeModel;
@@ -24,6 +25,7 @@ import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class TopDownNodeTest {
@@ -54,6 +56,31 @@ public class TopDownNodeTest {
     assertEquals("F", topDown.getChildren().get(1).getChildren().get(0).getId());
   }
 
+  @Test
+  public void testInRangeWithManyMergedNodes() {
+    CaptureNode root = newNode("A", 0, 1000);
+    // 50 calls of B: [0..10], [20..30], ... [980..990]
+    for (int i = 0; i < 50; i++) {
+      root.addChild(newNode("B", i * 20, i * 20 + 10));
+    }
+    TopDownNode b = new TopDownNode(root).getChildren().get(0);
+    assertEquals(50, b.getNodes().size());
+
+    assertTrue(b.inRange(new Range(5, 6)));
+    assertTrue(b.inRange(new Range(985, 2000)));
+    assertTrue(b.inRange(new Range(-10, 1)));
+    assertFalse(b.inRange(new Range(10, 20)));
+    assertFalse(b.inRange(new Range(991, 2000)));
+    assertFalse(b.inRange(new Range(-10, 0)));
+
+    // With the thread clock, the calls end one unit earlier, e.g. [0..9].
+    for (CaptureNode node : b.getNodes()) {
+      node.setClockType(ClockType.THREAD);
+    }
+    assertTrue(b.inRange(new Range(8.5, 9.5)));
+    assertFalse(b.inRange(new Range(9.5, 19.5)));
+  }
+
   @Test
   public void testTreeMergeWithFilter() {
     CaptureNode root = createTree();
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.android.tools.profilers.memory.adapters;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class ClassifierSetTest {
+  private static final int CLASS_COUNT = 3;
+
+  @Test
+  public void testPartitionManyInstancesKeepsOrderAndCounts() {
+    FakeCaptureObject captureObject = new FakeCaptureObject.Builder().build();
+    int instanceCount = ClassifierSet.Classifier.MIN_INSTANCES_PER_PARALLEL_CHUNK * 4;
+
+    Set<InstanceObject> snapshotInstances = new LinkedHashSet<>();
+    Set<InstanceObject> deltaInstances = new LinkedHashSet<>();
+    List<List<InstanceObject>> expectedSnapshotInstances = new ArrayList<>();
+    List<List<InstanceObject>> expectedDeltaInstances = new ArrayList<>();
+    for (int i = 0; i < CLASS_COUNT; i++) {
+      expectedSnapshotInstances.add(new ArrayList<>());
+      expectedDeltaInstances.add(new ArrayList<>());
+    }
+    for (int i = 0; i < instanceCount; i++) {
+      int classIndex = (i / 7) % CLASS_COUNT;
+      InstanceObject instance = new FakeInstanceObject.Builder(captureObject, classIndex, "com.example.Class" + classIndex)
+        .setName("instance" + i).setShallowSize(1).build();
+      if (i % 2 == 0) {
+        snapshotInstances.add(instance);
+        expectedSnapshotInstances.get(classIndex).add(instance);
+      }
+      else {
+        deltaInstances.add(instance);
+        expectedDeltaInstances.get(classIndex).add(instance);
+      }
+    }
+
+    ClassifierSet.Classifier classifier = ClassSet.createDefaultClassifier();
+    classifier.partition(snapshotInstances, deltaInstances);
+    assertThat(snapshotInstances).isEmpty();
+    assertThat(deltaInstances).isEmpty();
+
+    List<ClassifierSet> classSets = classifier.getFilteredClassifierSets();
+    assertThat(classSets.stream().map(ClassifierSet::getName).collect(Collectors.toList()))
+      .containsExactly("Class0", "Class1", "Class2").inOrder();
+    for (int i = 0; i < CLASS_COUNT; i++) {
+      ClassifierSet classSet = classSets.get(i);
+      List<InstanceObject> expectedInstances = new ArrayList<>(expectedSnapshotInstances.get(i));
+      expectedInstances.addAll(expectedDeltaInstances.get(i));
+      assertThat(classSet.getInstancesStream().collect(Collectors.toList())).containsExactlyElementsIn(expectedInstances).inOrder();
+      assertThat(classSet.getTotalObjectCount()).isEqualTo(expectedInstances.size());
+      assertThat(classSet.getDeltaAllocationCount()).isEqualTo(expectedDeltaInstances.get(i).size());
+      assertThat(classSet.getTotalShallowSize()).isEqualTo(expectedInstances.size());
+    }
+  }
+}
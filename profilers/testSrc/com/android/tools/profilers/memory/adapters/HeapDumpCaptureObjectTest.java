@@ -195,6 +195,45 @@ public class HeapDumpCaptureObjectTest {
     assertEquals(0, capture.getHeapSets().size());
   }
 
+  @Test
+  public void testReopeningHeapDumpReusesParsedSnapshot() throws Exception {
+    myStage.enter();
+    HeapDumpInfo dumpInfo = HeapDumpInfo.newBuilder().setStartTime(3).setEndTime(8).build();
+    byte[] buffer = new SnapshotBuilder(2, 0, 0).addReferences(1, 2).addRoot(1).getByteBuffer();
+    myTransportService.addFile(Long.toString(3), ByteString.copyFrom(buffer));
+    HeapDumpCaptureObject capture = createCapture(dumpInfo);
+    capture.load(null, null);
+    assertFalse(capture.isError());
+    assertEquals(1, myStage.getHeapDumpSnapshotCache().size());
+
+    // Opening the same heap dump again uses the cached snapshot, without downloading the heap dump contents again.
+    myTransportService.addFile(Long.toString(3), ByteString.EMPTY);
+    HeapDumpCaptureObject reopenedCapture = createCapture(dumpInfo);
+    reopenedCapture.load(null, null);
+    assertTrue(reopenedCapture.isDoneLoading());
+    assertFalse(reopenedCapture.isError());
+    assertEquals(6, reopenedCapture.getHeapSets().iterator().next().getInstancesCount());
+
+    // A different heap dump with the same start time doesn't use the cached snapshot, which gets dropped.
+    HeapDumpCaptureObject otherCapture = createCapture(dumpInfo.toBuilder().setEndTime(9).build());
+    otherCapture.load(null, null);
+    assertTrue(otherCapture.isError());
+    assertEquals(0, myStage.getHeapDumpSnapshotCache().size());
+  }
+
+  @Test
+  public void testExitingStageClearsParsedSnapshots() throws Exception {
+    myStage.enter();
+    HeapDumpInfo dumpInfo = HeapDumpInfo.newBuilder().setStartTime(3).setEndTime(8).build();
+    byte[] buffer = new SnapshotBuilder(2, 0, 0).addReferences(1, 2).addRoot(1).getByteBuffer();
+    myTransportService.addFile(Long.toString(3), ByteString.copyFrom(buffer));
+    createCapture(dumpInfo).load(null, null);
+    assertEquals(1, myStage.getHeapDumpSnapshotCache().size());
+
+    myStage.exit();
+    assertEquals(0, myStage.getHeapDumpSnapshotCache().size());
+  }
+
   @Test
   public void testHeapDumpActivityLeak() throws Exception {
     HeapDumpInfo dumpInfo = HeapDumpInfo.newBuilder().setStartTime(0).setEndTime(1).build();
@@ -241,6 +280,12 @@ public class HeapDumpCaptureObjectTest {
     Truth.assertThat(capture.getInstances().count()).isEqualTo(allInstanceCount);
   }
 
+  @NotNull
+  private HeapDumpCaptureObject createCapture(@NotNull HeapDumpInfo dumpInfo) {
+    return new HeapDumpCaptureObject(new ProfilerClient(myGrpcChannel.getName()), ProfilersTestData.SESSION_DATA, dumpInfo, null,
+                                     myIdeProfilerServices.getFeatureTracker(), myStage);
+  }
+
   private static void verifyInstance(@NotNull InstanceObject instance,
                                      @NotNull String valueText,
                                      int depth,
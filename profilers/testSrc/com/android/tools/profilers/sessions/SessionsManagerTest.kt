@@ -458,6 +458,27 @@ class SessionsManagerTest(private val useUnifiedEvents: Boolean) {
     assertThat(legacyAllocationsItem1.timestampNs).isEqualTo(legacyAllocationsInfoTimestamp - session1Timestamp)
   }
 
+  @Test
+  fun testSessionRestoredFromPreviousRunIsListedButNotSelected() {
+    Assume.assumeTrue(ideProfilerServices.featureConfig.isUnifiedPipelineEnabled)
+
+    val restoredSession = Common.Session.newBuilder().setSessionId(1).setPid(10).setStartTimestamp(1).setEndTimestamp(2).build()
+    myTransportService.addSession(restoredSession, Common.SessionMetaData.newBuilder()
+      .setSessionId(1).setType(Common.SessionMetaData.SessionType.FULL).setStartTimestampEpochMs(1).build())
+    myManager.update()
+
+    assertThat(myManager.sessionArtifacts).hasSize(1)
+    assertThat(myManager.sessionArtifacts[0].session).isEqualTo(restoredSession)
+    assertThat(myManager.selectedSession).isEqualTo(Common.Session.getDefaultInstance())
+    assertThat(myManager.profilingSession).isEqualTo(Common.Session.getDefaultInstance())
+    assertThat(myObserver.selectedSessionChangedCount).isEqualTo(0)
+
+    // Its data is only loaded once it gets selected.
+    myManager.setSession(restoredSession)
+    assertThat(myManager.selectedSession).isEqualTo(restoredSession)
+    assertThat(myManager.isSessionAlive).isFalse()
+  }
+
   @Test
   fun testImportedSessionOnlyProcessedWhenEnded() {
     Assume.assumeTrue(ideProfilerServices.featureConfig.isUnifiedPipelineEnabled)
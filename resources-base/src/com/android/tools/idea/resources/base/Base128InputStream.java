@@ -70,13 +70,13 @@ public final class Base128InputStream extends BufferedInputStream {
    * @throws StreamFormatException if an invalid data format is detected
    */
   public int readInt() throws IOException {
-    int b = super.read();
+    int b = readUnsignedByte();
     if (b < 0) {
       throw StreamFormatException.prematureEndOfFile();
     }
     int value = b & 0x7F;
     for (int shift = 7; (b & 0x80) != 0; shift += 7) {
-      b = super.read();
+      b = readUnsignedByte();
       if (b < 0) {
         throw StreamFormatException.prematureEndOfFile();
       }
@@ -96,13 +96,13 @@ public final class Base128InputStream extends BufferedInputStream {
    * @throws StreamFormatException if an invalid data format is detected
    */
   public long readLong() throws IOException, StreamFormatException {
-    int b = super.read();
+    int b = readUnsignedByte();
     if (b < 0) {
       throw StreamFormatException.prematureEndOfFile();
     }
     long value = b & 0x7F;
     for (int shift = 7; (b & 0x80) != 0; shift += 7) {
-      b = super.read();
+      b = readUnsignedByte();
       if (b < 0) {
         throw StreamFormatException.prematureEndOfFile();
       }
@@ -135,11 +135,11 @@ public final class Base128InputStream extends BufferedInputStream {
     if (len == 0) {
       return "";
     }
-    StringBuilder buf = new StringBuilder(len);
+    char[] chars = new char[len];
     for (int i = 0; i < len; i++) {
-      buf.append(readChar());
+      chars[i] = readChar();
     }
-    String str = buf.toString();
+    String str = new String(chars);
     return myStringCache == null ? str : myStringCache.computeIfAbsent(str, Function.identity());
   }
 
@@ -166,7 +166,7 @@ public final class Base128InputStream extends BufferedInputStream {
    * @throws StreamFormatException if the stream does not contain any more data
    */
   public byte readByte() throws IOException {
-    int b = super.read();
+    int b = readUnsignedByte();
     if (b < 0) {
       throw StreamFormatException.prematureEndOfFile();
     }
@@ -200,6 +200,20 @@ public final class Base128InputStream extends BufferedInputStream {
         "This method is disabled to prevent unintended accidental use. Please use readByte or readInt instead.");
   }
 
+  /**
+   * Reads the next byte from the buffer without going through the synchronized {@link BufferedInputStream#read()}, which
+   * would otherwise be entered for every single byte of the stream. Instances of this class are not meant to be shared between threads.
+   *
+   * @return the next byte as an unsigned value, or -1 if the end of the stream is reached
+   */
+  private int readUnsignedByte() throws IOException {
+    byte[] buffer = buf; // Null if the stream has been closed.
+    if (buffer != null && pos < count) {
+      return buffer[pos++] & 0xFF;
+    }
+    return super.read();
+  }
+
   /**
    * Checks if the stream contains the given bytes starting from the current position.
    * Unless the remaining part of the stream is shorter than the {@code expected} array,
@@ -15,12 +15,19 @@
  */
 package com.android.tools.datastore;
 
+import com.google.common.annotations.VisibleForTesting;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 public class DataStoreDatabase {
@@ -35,10 +42,31 @@ public class DataStoreDatabase {
     return myLogService.getLogger(DataStoreDatabase.class);
   }
 
+  /**
+   * Version of the layout of {@link Characteristic#DURABLE} database files, stored as the file's user_version. A file is reopened, and the
+   * sessions recorded in it restored, only if it was written with this version; the tables then migrate their columns that changed
+   * since (see {@link com.android.tools.datastore.database.DataStoreTable#createTable}). Bump this when a change cannot be migrated
+   * that way, so that files written before are discarded.
+   */
+  @VisibleForTesting
+  public static final int SCHEMA_VERSION = 1;
+
+  /**
+   * Interval between commits of the pending database transaction. Auto-commit is disabled so inserts do not pay for a transaction
+   * each; committing periodically keeps the pending transaction (and its journal) bounded.
+   */
+  private static final long COMMIT_INTERVAL_MS = 5000;
+
   @NotNull private final LogService myLogService;
 
   private final Connection myConnection;
 
+  @NotNull private final ScheduledExecutorService myCommitExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "DataStoreDatabase commit thread");
+    thread.setDaemon(true);
+    return thread;
+  });
+
   /**
    * @param dbPath the path to the backing DB file, if {@link Characteristic#DURABLE}.
    */
@@ -65,27 +93,19 @@ public class DataStoreDatabase {
           break;
         case DURABLE:
           File dbFile = new File(dbPath);
-          // Due to an incompatible update in SQLite we do not support loading SQL files from previous versions of studio.
-          // As a intermediate measure we delete the file until we support loading existing databases.
-          // TODO: Investigate removing this when we add a feature to restore sessions from prior Studio runs.
-          if (dbFile.exists()) {
-            dbFile.delete();
-          }
-
           File parent = dbFile.getParentFile();
           if (parent != null) {
             if (!parent.mkdirs() && !parent.exists()) {
               getLogger().error("Unable to create parent directory");
             }
           }
-          connection = DriverManager.getConnection(String.format("jdbc:sqlite:%s", dbFile.getPath()));
+          connection = openDurableConnection(dbFile);
           break;
         default:
           throw new RuntimeException("Characteristic not handled!");
       }
 
-      // Performance optimization.
-      // TODO: Create a timer and commit the database transaction every X seconds.
+      // Performance optimization. The pending transaction is committed every COMMIT_INTERVAL_MS instead.
       connection.setAutoCommit(false);
     }
     catch (ClassNotFoundException e) {
@@ -98,24 +118,86 @@ public class DataStoreDatabase {
       noPiiExceptionHandler.accept(e);
     }
     myConnection = connection;
+    if (myConnection != null) {
+      myCommitExecutor.scheduleWithFixedDelay(this::commit, COMMIT_INTERVAL_MS, COMMIT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
   }
 
-  public void disconnect() {
-    try {
-      myConnection.commit();
+  /**
+   * Opens the database file, keeping the sessions recorded in it by a previous run if it was written with {@link #SCHEMA_VERSION}.
+   * Files written before versioning was introduced (whose SQLite format is not compatible), by another version, or which are not
+   * databases at all are discarded.
+   */
+  @NotNull
+  private Connection openDurableConnection(@NotNull File dbFile) throws SQLException {
+    String url = String.format("jdbc:sqlite:%s", dbFile.getPath());
+    if (dbFile.exists()) {
+      if (readSchemaVersion(url) == SCHEMA_VERSION) {
+        return DriverManager.getConnection(url);
+      }
+      if (!dbFile.delete()) {
+        getLogger().warn("Unable to delete incompatible database file");
+      }
+    }
+
+    Connection connection = DriverManager.getConnection(url);
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(String.format(Locale.US, "PRAGMA user_version = %d", SCHEMA_VERSION));
+    }
+    return connection;
+  }
+
+  /**
+   * @return the user_version of the database, or -1 if it cannot be read.
+   */
+  private static int readSchemaVersion(@NotNull String url) {
+    try (Connection connection = DriverManager.getConnection(url);
+         Statement statement = connection.createStatement();
+         ResultSet result = statement.executeQuery("PRAGMA user_version")) {
+      return result.next() ? result.getInt(1) : -1;
     }
     catch (SQLException e) {
-      getLogger().error(e);
+      return -1;
     }
-    finally {
+  }
+
+  /**
+   * Commits the pending transaction, which is otherwise done every {@link #COMMIT_INTERVAL_MS}. The connection is locked while
+   * committing, as the tables lock it while writing, so that a commit never happens in the middle of a write or a batch.
+   */
+  @VisibleForTesting
+  public void commit() {
+    synchronized (myConnection) {
       try {
         if (!myConnection.isClosed()) {
-          myConnection.close();
+          myConnection.commit();
         }
       }
+      catch (SQLException e) {
+        getLogger().warn("Failed to commit the pending transaction: " + e.getMessage());
+      }
+    }
+  }
+
+  public void disconnect() {
+    myCommitExecutor.shutdownNow();
+    synchronized (myConnection) {
+      try {
+        myConnection.commit();
+      }
       catch (SQLException e) {
         getLogger().error(e);
       }
+      finally {
+        try {
+          if (!myConnection.isClosed()) {
+            myConnection.close();
+          }
+        }
+        catch (SQLException e) {
+          getLogger().error(e);
+        }
+      }
     }
   }
 
@@ -21,6 +21,7 @@ import java.sql.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 
 /**
  * Interface a {@link com.android.tools.datastore.ServicePassThrough} object returns to indicate this object is
@@ -28,6 +29,8 @@ import java.util.function.Function;
  */
 public abstract class DataStoreTable<T extends Enum> {
   private static final Set<DataStoreTableErrorCallback> ERROR_CALLBACKS = ConcurrentHashMap.newKeySet();
+  private static final Pattern TABLE_CONSTRAINT = Pattern.compile("\\s*(PRIMARY KEY|UNIQUE|FOREIGN KEY|CHECK|CONSTRAINT)\\b",
+                                                                  Pattern.CASE_INSENSITIVE);
 
   private Connection myConnection;
   private final ThreadLocal<Map<T, PreparedStatement>> myStatementMap = new ThreadLocal<>();
@@ -99,13 +102,75 @@ public abstract class DataStoreTable<T extends Enum> {
     return myStatementMap.get();
   }
 
+  /**
+   * Creates the table if it does not exist yet. A table kept from a previous run keeps its rows: the columns added since are added to it,
+   * and only if that is not possible (a column was removed, or an added one is NOT NULL without a default value) is it recreated empty.
+   */
   protected void createTable(@NotNull String table, String... columns) throws SQLException {
+    Set<String> existingColumns = getColumnNames(table);
+    if (!existingColumns.isEmpty() && !migrateColumns(table, existingColumns, columns)) {
+      myConnection.createStatement().execute(String.format("DROP TABLE IF EXISTS %s ", table));
+    }
+    StringBuilder statement = new StringBuilder();
+    statement.append(String.format("CREATE TABLE IF NOT EXISTS %s", table));
+    executeUniqueStatement(statement, columns);
+  }
+
+  /**
+   * Creates the table, dropping any rows kept from a previous run. Used for tables describing what is currently connected rather than
+   * what was recorded.
+   */
+  protected void createTransientTable(@NotNull String table, String... columns) throws SQLException {
     myConnection.createStatement().execute(String.format("DROP TABLE IF EXISTS %s ", table));
     StringBuilder statement = new StringBuilder();
     statement.append(String.format("CREATE TABLE %s", table));
     executeUniqueStatement(statement, columns);
   }
 
+  @NotNull
+  private Set<String> getColumnNames(@NotNull String table) throws SQLException {
+    Set<String> columns = new HashSet<>();
+    try (Statement statement = myConnection.createStatement();
+         ResultSet results = statement.executeQuery(String.format("PRAGMA table_info(%s)", table))) {
+      while (results.next()) {
+        columns.add(results.getString("name"));
+      }
+    }
+    return columns;
+  }
+
+  /**
+   * Adds the declared columns missing from an existing table.
+   *
+   * @return false if the table cannot be migrated and needs to be recreated.
+   */
+  private boolean migrateColumns(@NotNull String table, @NotNull Set<String> existingColumns, @NotNull String[] columns) {
+    Set<String> declaredColumns = new HashSet<>();
+    List<String> missingColumns = new ArrayList<>();
+    for (String column : columns) {
+      if (TABLE_CONSTRAINT.matcher(column).lookingAt()) {
+        continue;
+      }
+      String name = column.trim().split("\\s+", 2)[0];
+      declaredColumns.add(name);
+      if (!existingColumns.contains(name)) {
+        missingColumns.add(column);
+      }
+    }
+    if (!declaredColumns.containsAll(existingColumns)) {
+      return false;
+    }
+    for (String column : missingColumns) {
+      try (Statement statement = myConnection.createStatement()) {
+        statement.execute(String.format("ALTER TABLE %s ADD COLUMN %s", table, column));
+      }
+      catch (SQLException ex) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   protected void createUniqueIndex(@NotNull String table, String... indexList) throws SQLException {
     StringBuilder statement = new StringBuilder();
     statement.append(String.format("CREATE UNIQUE INDEX IF NOT EXISTS idx_%s_pk ON %s", table, table));
@@ -142,25 +207,30 @@ public abstract class DataStoreTable<T extends Enum> {
     if (isClosed()) {
       return;
     }
-    try {
-      PreparedStatement stmt = getStatementMap().get(statement);
-      batchParams.forEach((object) -> {
-        try {
-          applyParams(stmt, paramConverter.apply(object));
-          stmt.addBatch();
-        } catch (SQLException ex) {
-          onError(ex);
-        }
-      });
-      int[] results = stmt.executeBatch();
-      for(int i = 0; i < results.length; i++) {
-        if (results[i] == Statement.EXECUTE_FAILED) {
-          throw new SQLException(String.format("Failed to insert batch element %d with result %d", i, results[i]));
+    // See execute for why the connection is locked.
+    synchronized (myConnection) {
+      try {
+        PreparedStatement stmt = getStatementMap().get(statement);
+        batchParams.forEach((object) -> {
+          try {
+            applyParams(stmt, paramConverter.apply(object));
+            stmt.addBatch();
+          } catch (SQLException ex) {
+            onError(ex);
+          }
+        });
+        int[] results = stmt.executeBatch();
+        // Clear parameters on exit so cached statements don't keep potentially large objects in memory.
+        stmt.clearParameters();
+        for(int i = 0; i < results.length; i++) {
+          if (results[i] == Statement.EXECUTE_FAILED) {
+            throw new SQLException(String.format("Failed to insert batch element %d with result %d", i, results[i]));
+          }
         }
       }
-    }
-    catch (SQLException ex) {
-      onError(ex);
+      catch (SQLException ex) {
+        onError(ex);
+      }
     }
   }
 
@@ -168,16 +238,20 @@ public abstract class DataStoreTable<T extends Enum> {
     if (isClosed()) {
       return;
     }
-    try {
-      PreparedStatement stmt = getStatementMap().get(statement);
-      applyParams(stmt, params);
-      stmt.execute();
-      // Clear parameters on exit so cached statements don't keep potentially large objects in memory.
-      // Example: Inserting a payload into the database.
-      stmt.clearParameters();
-    }
-    catch (SQLException ex) {
-      onError(ex);
+    // Writes lock the connection, which DataStoreDatabase also locks to commit, so that the pending transaction is never committed in
+    // the middle of a write or a batch.
+    synchronized (myConnection) {
+      try {
+        PreparedStatement stmt = getStatementMap().get(statement);
+        applyParams(stmt, params);
+        stmt.execute();
+        // Clear parameters on exit so cached statements don't keep potentially large objects in memory.
+        // Example: Inserting a payload into the database.
+        stmt.clearParameters();
+      }
+      catch (SQLException ex) {
+        onError(ex);
+      }
     }
   }
 
@@ -66,9 +66,10 @@ public class DeviceProcessTable extends DataStoreTable<DeviceProcessTable.Statem
   public void initialize(@NotNull Connection connection) {
     super.initialize(connection);
     try {
-      createTable("DevicesTable", "DeviceId INTEGER", "Data BLOB");
-      createTable("ProcessesTable", "DeviceId INTEGER", "ProcessId INTEGER", "Name STRING NOT NULL", "State INTEGER",
-                  "StartTime INTEGER", "Arch STRING NOT NULL", "AgentStatus INTEGER");
+      // Devices and processes of a previous run are no longer connected.
+      createTransientTable("DevicesTable", "DeviceId INTEGER", "Data BLOB");
+      createTransientTable("ProcessesTable", "DeviceId INTEGER", "ProcessId INTEGER", "Name STRING NOT NULL", "State INTEGER",
+                           "StartTime INTEGER", "Arch STRING NOT NULL", "AgentStatus INTEGER");
       createUniqueIndex("DevicesTable", "DeviceId");
       createUniqueIndex("ProcessesTable", "DeviceId", "ProcessId");
     }
@@ -187,8 +187,49 @@ public class MemoryLiveAllocationTable extends DataStoreTable<MemoryLiveAllocati
     execute(INSERT_JNI_REF, session.getSessionId(), sample.getTimestamp(), sample.toByteArray());
   }
 
+  /**
+   * Inserts all the given samples using a single batch statement.
+   */
+  public void insertJniReferenceData(@NotNull Common.Session session, @NotNull List<Memory.BatchJNIGlobalRefEvent> samples) {
+    if (!samples.isEmpty()) {
+      executeBatch(INSERT_JNI_REF, samples,
+                   sample -> new Object[]{session.getSessionId(), sample.getTimestamp(), sample.toByteArray()});
+    }
+  }
+
   public void insertAllocationContexts(Common.Session session, Memory.BatchAllocationContexts sample) {
-    // Convert the class names from JNI to Java formats before inserting into the database.
+    execute(INSERT_ALLOC_CONTEXTS, session.getSessionId(), sample.getTimestamp(), convertClassNames(sample).toByteArray());
+  }
+
+  /**
+   * Inserts all the given samples using a single batch statement.
+   */
+  public void insertAllocationContexts(@NotNull Common.Session session, @NotNull List<Memory.BatchAllocationContexts> samples) {
+    if (!samples.isEmpty()) {
+      executeBatch(INSERT_ALLOC_CONTEXTS, samples,
+                   sample -> new Object[]{session.getSessionId(), sample.getTimestamp(), convertClassNames(sample).toByteArray()});
+    }
+  }
+
+  public void insertAllocationEvents(Common.Session session, Memory.BatchAllocationEvents sample) {
+    execute(INSERT_ALLOC_EVENTS, session.getSessionId(), sample.getTimestamp(), sample.toByteArray());
+  }
+
+  /**
+   * Inserts all the given samples using a single batch statement.
+   */
+  public void insertAllocationEvents(@NotNull Common.Session session, @NotNull List<Memory.BatchAllocationEvents> samples) {
+    if (!samples.isEmpty()) {
+      executeBatch(INSERT_ALLOC_EVENTS, samples,
+                   sample -> new Object[]{session.getSessionId(), sample.getTimestamp(), sample.toByteArray()});
+    }
+  }
+
+  /**
+   * Converts the class names from JNI to Java formats before inserting into the database.
+   */
+  @NotNull
+  private static Memory.BatchAllocationContexts convertClassNames(@NotNull Memory.BatchAllocationContexts sample) {
     Memory.BatchAllocationContexts.Builder convertedSampleBuilder = sample.toBuilder();
 
     List<Memory.AllocatedClass> classes = convertedSampleBuilder.getClassesList();
@@ -197,11 +238,7 @@ public class MemoryLiveAllocationTable extends DataStoreTable<MemoryLiveAllocati
       .map(klass -> klass.toBuilder().setClassName(jniToJavaName(klass.getClassName())).build())
       .collect(Collectors.toList());
     convertedSampleBuilder.addAllClasses(convertedClasses);
-    execute(INSERT_ALLOC_CONTEXTS, session.getSessionId(), sample.getTimestamp(), convertedSampleBuilder.build().toByteArray());
-  }
-
-  public void insertAllocationEvents(Common.Session session, Memory.BatchAllocationEvents sample) {
-    execute(INSERT_ALLOC_EVENTS, session.getSessionId(), sample.getTimestamp(), sample.toByteArray());
+    return convertedSampleBuilder.build();
   }
 
   public void insertOrReplaceAllocationSamplingRateEvent(@NotNull Common.Session session, @NotNull AllocationSamplingRateEvent event) {
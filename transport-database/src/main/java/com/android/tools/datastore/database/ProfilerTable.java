@@ -34,6 +34,7 @@ public class ProfilerTable extends DataStoreTable<ProfilerTable.ProfilerStatemen
     SELECT_SESSIONS,
     SELECT_SESSION_BY_ID,
     DELETE_SESSION_BY_ID,
+    END_OPEN_SESSIONS,
   }
 
   @Override
@@ -45,6 +46,9 @@ public class ProfilerTable extends DataStoreTable<ProfilerTable.ProfilerStatemen
                   "EndTime INTEGER", "StartTimeEpochMs INTEGER", "Name TEXT", "ProcessAbi TEXT", "JvmtiEnabled INTEGER",
                   "LiveAllocationEnabled INTEGER", "TypeId INTEGER");
       createUniqueIndex("Profiler_Sessions", "SessionId");
+      // Sessions a previous run did not end are no longer ongoing. Their end is not recorded in this pipeline, so they are ended where
+      // they started.
+      execute(ProfilerStatements.END_OPEN_SESSIONS, Long.MAX_VALUE);
     }
     catch (SQLException ex) {
       onError(ex);
@@ -67,6 +71,8 @@ public class ProfilerTable extends DataStoreTable<ProfilerTable.ProfilerStatemen
                       "SELECT * from Profiler_Sessions WHERE SessionId = ?");
       createStatement(ProfilerStatements.DELETE_SESSION_BY_ID,
                       "DELETE from Profiler_Sessions WHERE SessionId = ?");
+      createStatement(ProfilerStatements.END_OPEN_SESSIONS,
+                      "UPDATE Profiler_Sessions Set EndTime = StartTime WHERE EndTime = ?");
     }
     catch (SQLException ex) {
       onError(ex);
@@ -43,6 +43,12 @@ public class UnifiedEventsTable extends DataStoreTable<UnifiedEventsTable.Statem
     DELETE_EVENTS(
       "DELETE FROM [UnifiedEventsTable] " +
       "WHERE StreamId = ? AND ProcessId = ? And GroupId = ? And Kind = ? AND Timestamp >= ? AND Timestamp <= ?"),
+    DELETE_EVENTS_OF_KINDS("DELETE FROM [UnifiedEventsTable] WHERE Kind IN (?, ?, ?)"),
+    // Groups of the given kind that have no end event.
+    QUERY_OPEN_GROUPS(
+      "SELECT StreamId, ProcessId, GroupId, MIN(Timestamp) FROM [UnifiedEventsTable] WHERE Kind = ? " +
+      "GROUP BY StreamId, GroupId HAVING MAX(IsEnded) = 0"),
+    QUERY_LAST_TIMESTAMP("SELECT MAX(Timestamp) FROM [UnifiedEventsTable] WHERE StreamId = ?"),
     // Only used for test.
     QUERY_EVENTS("SELECT Data FROM [UnifiedEventsTable]"),
     INSERT_BYTES("INSERT OR IGNORE INTO [BytesTable] (StreamId, Id, Data) VALUES (?, ?, ?)"),
@@ -88,12 +94,44 @@ public class UnifiedEventsTable extends DataStoreTable<UnifiedEventsTable.Statem
       createTable("BytesTable", "StreamId INTEGER NOT NULL", "Id STRING NOT NULL", "Data BLOB");
       createUniqueIndex("UnifiedEventsTable", "Kind", "StreamId", "ProcessId", "GroupId", "Timestamp", "IsEnded");
       createUniqueIndex("BytesTable", "StreamId", "Id");
+      endPreviousRun();
     }
     catch (SQLException ex) {
       onError(ex);
     }
   }
 
+  /**
+   * Updates the events kept from a previous run so that they describe a run that is over: the streams, processes and agents it was
+   * connected to are dropped, and the sessions it did not end are ended at the last event received from their stream. Sessions are
+   * otherwise kept as they were recorded, and their data is only queried once they get selected.
+   */
+  private void endPreviousRun() throws SQLException {
+    execute(Statements.DELETE_EVENTS_OF_KINDS,
+            Event.Kind.STREAM.getNumber(), Event.Kind.PROCESS.getNumber(), Event.Kind.AGENT.getNumber());
+
+    List<Event.Builder> endEvents = new ArrayList<>();
+    List<Long> streamIds = new ArrayList<>();
+    ResultSet openSessions = executeQuery(Statements.QUERY_OPEN_GROUPS, Event.Kind.SESSION.getNumber());
+    while (openSessions.next()) {
+      streamIds.add(openSessions.getLong(1));
+      endEvents.add(Event.newBuilder()
+                      .setKind(Event.Kind.SESSION)
+                      .setPid(openSessions.getInt(2))
+                      .setGroupId(openSessions.getLong(3))
+                      .setTimestamp(openSessions.getLong(4))
+                      .setIsEnded(true));
+    }
+    for (int i = 0; i < endEvents.size(); i++) {
+      Event.Builder endEvent = endEvents.get(i);
+      ResultSet lastTimestamp = executeQuery(Statements.QUERY_LAST_TIMESTAMP, streamIds.get(i));
+      if (lastTimestamp.next()) {
+        endEvent.setTimestamp(Math.max(endEvent.getTimestamp(), lastTimestamp.getLong(1)));
+      }
+      insertUnifiedEvent(streamIds.get(i), endEvent.build());
+    }
+  }
+
   public void insertUnifiedEvent(long streamId, @NotNull Event event) {
     execute(Statements.INSERT_EVENT,
             streamId,
@@ -36,7 +36,7 @@ public class EventDataPoller extends PollRunner {
   public EventDataPoller(@NotNull Common.Session session,
                          @NotNull EventsTable eventTable,
                          @NotNull EventServiceGrpc.EventServiceBlockingStub pollingService) {
-    super(POLLING_DELAY_NS);
+    super(POLLING_DELAY_NS, MAX_IDLE_POLLING_DELAY_NS);
     myEventsTable = eventTable;
     myEventPollingService = pollingService;
     mySession = session;
@@ -83,5 +83,9 @@ public class EventDataPoller extends PollRunner {
       long id = data.getEventId();
       myEventsTable.insertOrReplace(id, mySession, data);
     }
+
+    if (activityResponse.getDataCount() == 0 && systemResponse.getDataCount() == 0) {
+      onIdlePoll();
+    }
   }
 }
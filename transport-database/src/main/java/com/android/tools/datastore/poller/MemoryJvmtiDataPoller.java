@@ -17,9 +17,6 @@ package com.android.tools.datastore.poller;
 
 import com.android.tools.datastore.database.MemoryLiveAllocationTable;
 import com.android.tools.profiler.proto.Common;
-import com.android.tools.profiler.proto.Memory;
-import com.android.tools.profiler.proto.Memory.BatchAllocationContexts;
-import com.android.tools.profiler.proto.Memory.BatchAllocationEvents;
 import com.android.tools.profiler.proto.MemoryProfiler;
 import com.android.tools.profiler.proto.MemoryProfiler.MemoryData;
 import com.android.tools.profiler.proto.MemoryProfiler.MemoryRequest;
@@ -35,7 +32,7 @@ public class MemoryJvmtiDataPoller extends PollRunner {
   public MemoryJvmtiDataPoller(@NotNull Common.Session session,
                                @NotNull MemoryLiveAllocationTable liveAllocationTable,
                                @NotNull MemoryServiceGrpc.MemoryServiceBlockingStub pollingService) {
-    super(POLLING_DELAY_NS);
+    super(POLLING_DELAY_NS, MAX_IDLE_POLLING_DELAY_NS);
     mySession = session;
     myLiveAllocationTable = liveAllocationTable;
     myPollingService = pollingService;
@@ -47,18 +44,18 @@ public class MemoryJvmtiDataPoller extends PollRunner {
       .newBuilder().setSession(mySession).setStartTime(myDataRequestStartTimestampNs).setEndTime(Long.MAX_VALUE);
     MemoryData response = myPollingService.getJvmtiData(dataRequestBuilder.build());
 
-    for (BatchAllocationContexts sample : response.getBatchAllocationContextsList()) {
-      myLiveAllocationTable.insertAllocationContexts(mySession, sample);
-    }
-    for (BatchAllocationEvents sample : response.getBatchAllocationEventsList()) {
-      myLiveAllocationTable.insertAllocationEvents(mySession, sample);
-    }
-    for (Memory.BatchJNIGlobalRefEvent batchJniEvent : response.getJniReferenceEventBatchesList()) {
-      myLiveAllocationTable.insertJniReferenceData(mySession, batchJniEvent);
-    }
+    myLiveAllocationTable.insertAllocationContexts(mySession, response.getBatchAllocationContextsList());
+    myLiveAllocationTable.insertAllocationEvents(mySession, response.getBatchAllocationEventsList());
+    myLiveAllocationTable.insertJniReferenceData(mySession, response.getJniReferenceEventBatchesList());
     for (MemoryProfiler.AllocationSamplingRateEvent event : response.getAllocSamplingRateEventsList()) {
       myLiveAllocationTable.insertOrReplaceAllocationSamplingRateEvent(mySession, event);
     }
+    if (response.getBatchAllocationContextsCount() == 0 &&
+        response.getBatchAllocationEventsCount() == 0 &&
+        response.getJniReferenceEventBatchesCount() == 0 &&
+        response.getAllocSamplingRateEventsCount() == 0) {
+      onIdlePoll();
+    }
     if (response.getEndTimestamp() > myDataRequestStartTimestampNs) {
       myDataRequestStartTimestampNs = response.getEndTimestamp();
     }
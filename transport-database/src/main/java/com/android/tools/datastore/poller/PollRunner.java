@@ -24,13 +24,27 @@ import java.util.concurrent.TimeUnit;
 /**
  * A {@link RunnableFuture} which, while running, triggers a callback at a specified period
  * (which can be used to poll a target service at some frequency).
+ * <p>
+ * Implementations that call {@link #onIdlePoll()} when a poll returns no new data get their period doubled after each idle poll, up to
+ * a maximum period, and reset back to the initial period as soon as a poll returns data again.
  */
 public abstract class PollRunner implements RunnableFuture<Void> {
 
   public static final long POLLING_DELAY_NS = TimeUnit.MILLISECONDS.toNanos(250);
 
+  /**
+   * Maximum period used by pollers that back off while their target service has no new data.
+   */
+  public static final long MAX_IDLE_POLLING_DELAY_NS = TimeUnit.SECONDS.toNanos(1);
+
   private long myPollPeriodNs;
 
+  private long myMaxPollPeriodNs;
+
+  private long myCurrentPollPeriodNs;
+
+  private boolean myIsIdle = false;
+
   private boolean myIsRunning = false;
 
   private CountDownLatch myRunning = new CountDownLatch(1);
@@ -39,7 +53,18 @@ public abstract class PollRunner implements RunnableFuture<Void> {
 
 
   public PollRunner(long pollPeriodNs) {
+    this(pollPeriodNs, pollPeriodNs);
+  }
+
+  /**
+   * @param pollPeriodNs    period between polls while the target service has new data.
+   * @param maxPollPeriodNs maximum period between polls while {@link #poll()} keeps reporting {@link #onIdlePoll()}.
+   */
+  public PollRunner(long pollPeriodNs, long maxPollPeriodNs) {
+    assert maxPollPeriodNs >= pollPeriodNs;
     myPollPeriodNs = pollPeriodNs;
+    myMaxPollPeriodNs = maxPollPeriodNs;
+    myCurrentPollPeriodNs = pollPeriodNs;
   }
 
   public void stop() {
@@ -58,8 +83,10 @@ public abstract class PollRunner implements RunnableFuture<Void> {
       myIsRunning = true;
       while (myRunning.getCount() > 0) {
         long startTimeNs = System.nanoTime();
+        myIsIdle = false;
         poll();
-        long sleepTime = Math.max(myPollPeriodNs - (System.nanoTime() - startTimeNs), 0L);
+        myCurrentPollPeriodNs = myIsIdle ? Math.min(myCurrentPollPeriodNs * 2, myMaxPollPeriodNs) : myPollPeriodNs;
+        long sleepTime = Math.max(myCurrentPollPeriodNs - (System.nanoTime() - startTimeNs), 0L);
         myRunning.await(sleepTime, TimeUnit.NANOSECONDS);
       }
     }
@@ -74,6 +101,21 @@ public abstract class PollRunner implements RunnableFuture<Void> {
 
   public abstract void poll();
 
+  /**
+   * Called by implementations during {@link #poll()} to indicate that the poll did not return any new data, so the next poll can be
+   * delayed.
+   */
+  protected void onIdlePoll() {
+    myIsIdle = true;
+  }
+
+  /**
+   * @return the period that will be used before the next poll.
+   */
+  long getCurrentPollPeriodNs() {
+    return myCurrentPollPeriodNs;
+  }
+
   @Override
   public boolean cancel(boolean mayInterruptIfRunning) {
     myRunning.countDown();
@@ -15,11 +15,15 @@ package com.android.tools.datastore.database
 
 import com.android.tools.datastore.DataStoreDatabase
 import com.android.tools.datastore.FakeLogService
+import com.android.tools.profiler.proto.Common
+import com.android.tools.profiler.proto.Transport.GetEventGroupsRequest
 import com.google.common.truth.Truth.assertThat
 import org.junit.Test
 import java.io.BufferedOutputStream
 import java.io.File
 import java.io.FileOutputStream
+import java.sql.Connection
+import java.sql.DriverManager
 
 class DataStoreDatabaseTest {
 
@@ -34,17 +38,80 @@ class DataStoreDatabaseTest {
   }
 
   @Test
-  fun testDatabaseDeletesExisitingFileOnLoad() {
+  fun testDatabaseDiscardsUnreadableFileOnLoad() {
     val outputStream = BufferedOutputStream(FileOutputStream(myDatabaseFile))
     outputStream.write(ByteArray(1024))
     outputStream.close()
     assertThat(myDatabaseFile.length()).isEqualTo(1024)
     val db = DataStoreDatabase(myDatabaseFile.absolutePath, DataStoreDatabase.Characteristic.DURABLE, FakeLogService())
-    assertThat(myDatabaseFile.length()).isEqualTo(0)
+    assertThat(readSchemaVersion(db.connection)).isEqualTo(DataStoreDatabase.SCHEMA_VERSION)
+    assertThat(readTableNames(db.connection)).isEmpty()
     db.disconnect()
     assertThat(myDatabaseFile.exists()).isTrue()
   }
 
+  @Test
+  fun testDatabaseDiscardsFileOfOtherVersionOnLoad() {
+    myDatabaseFile.delete()
+    val connection = DriverManager.getConnection("jdbc:sqlite:${myDatabaseFile.absolutePath}")
+    connection.createStatement().execute("PRAGMA user_version = ${DataStoreDatabase.SCHEMA_VERSION + 1}")
+    connection.createStatement().execute("CREATE TABLE Test_Table (Id INTEGER)")
+    connection.close()
+
+    val db = DataStoreDatabase(myDatabaseFile.absolutePath, DataStoreDatabase.Characteristic.DURABLE, FakeLogService())
+    assertThat(readSchemaVersion(db.connection)).isEqualTo(DataStoreDatabase.SCHEMA_VERSION)
+    assertThat(readTableNames(db.connection)).isEmpty()
+    db.disconnect()
+  }
+
+  @Test
+  fun testReopenedDatabaseKeepsRecordedSessions() {
+    myDatabaseFile.delete()
+    var db = DataStoreDatabase(myDatabaseFile.absolutePath, DataStoreDatabase.Characteristic.DURABLE, FakeLogService())
+    var table = UnifiedEventsTable()
+    table.initialize(db.connection)
+    // An ended session, a session the run did not end, and the process the latter was connected to.
+    table.insertUnifiedEvent(1, sessionEvent(1, 10, 1, false))
+    table.insertUnifiedEvent(1, sessionEvent(1, 10, 2, true))
+    table.insertUnifiedEvent(1, sessionEvent(2, 20, 3, false))
+    table.insertUnifiedEvent(1, Common.Event.newBuilder().setKind(Common.Event.Kind.PROCESS).setPid(20).setTimestamp(3).build())
+    table.insertUnifiedEvent(1, Common.Event.newBuilder().setKind(Common.Event.Kind.CPU_USAGE).setPid(20).setTimestamp(5).build())
+    db.disconnect()
+
+    db = DataStoreDatabase(myDatabaseFile.absolutePath, DataStoreDatabase.Characteristic.DURABLE, FakeLogService())
+    table = UnifiedEventsTable()
+    table.initialize(db.connection)
+    val sessions = table.queryUnifiedEventGroups(GetEventGroupsRequest.newBuilder().setKind(Common.Event.Kind.SESSION).build())
+      .associateBy { it.groupId }
+    assertThat(sessions.keys).containsExactly(1L, 2L)
+    assertThat(sessions.getValue(1).eventsList).containsExactly(sessionEvent(1, 10, 1, false), sessionEvent(1, 10, 2, true)).inOrder()
+    // The session that was left open is ended at the last event of its stream.
+    assertThat(sessions.getValue(2).eventsList).containsExactly(sessionEvent(2, 20, 3, false), sessionEvent(2, 20, 5, true)).inOrder()
+    assertThat(table.queryUnifiedEventGroups(GetEventGroupsRequest.newBuilder().setKind(Common.Event.Kind.PROCESS).build())).isEmpty()
+    db.disconnect()
+  }
+
+  @Test
+  fun testReopenedTableIsMigrated() {
+    myDatabaseFile.delete()
+    var db = DataStoreDatabase(myDatabaseFile.absolutePath, DataStoreDatabase.Characteristic.DURABLE, FakeLogService())
+    MigrationTestTable("Id INTEGER NOT NULL", "Removed INTEGER").initialize(db.connection)
+    MigrationTestTable("Id INTEGER NOT NULL", "PRIMARY KEY(Id)").initialize(db.connection, "Kept_Table")
+    db.connection.createStatement().execute("INSERT INTO Migration_Table (Id, Removed) VALUES (1, 1)")
+    db.connection.createStatement().execute("INSERT INTO Kept_Table (Id) VALUES (1)")
+    db.disconnect()
+
+    db = DataStoreDatabase(myDatabaseFile.absolutePath, DataStoreDatabase.Characteristic.DURABLE, FakeLogService())
+    // A removed column cannot be migrated, so that table is recreated. An added nullable column is added to the existing rows.
+    MigrationTestTable("Id INTEGER NOT NULL").initialize(db.connection)
+    MigrationTestTable("Id INTEGER NOT NULL", "Added TEXT", "PRIMARY KEY(Id)").initialize(db.connection, "Kept_Table")
+    assertThat(countRows(db.connection, "Migration_Table")).isEqualTo(0)
+    assertThat(countRows(db.connection, "Kept_Table")).isEqualTo(1)
+    db.connection.createStatement().execute("INSERT INTO Kept_Table (Id, Added) VALUES (2, 'added')")
+    assertThat(countRows(db.connection, "Kept_Table")).isEqualTo(2)
+    db.disconnect()
+  }
+
   @Test
   fun testConnectionIsOpen() {
     // Verify persistent database
@@ -63,4 +130,48 @@ class DataStoreDatabaseTest {
     db.disconnect()
     assertThat(db.connection.isClosed).isTrue()
   }
+
+  private fun sessionEvent(sessionId: Long, pid: Int, timestamp: Long, isEnded: Boolean): Common.Event {
+    return Common.Event.newBuilder()
+      .setKind(Common.Event.Kind.SESSION)
+      .setGroupId(sessionId)
+      .setPid(pid)
+      .setTimestamp(timestamp)
+      .setIsEnded(isEnded)
+      .build()
+  }
+
+  private fun readSchemaVersion(connection: Connection): Int {
+    val result = connection.createStatement().executeQuery("PRAGMA user_version")
+    return if (result.next()) result.getInt(1) else -1
+  }
+
+  private fun readTableNames(connection: Connection): List<String> {
+    val names = mutableListOf<String>()
+    val result = connection.createStatement().executeQuery("SELECT name FROM sqlite_master WHERE type='table'")
+    while (result.next()) {
+      names.add(result.getString(1))
+    }
+    return names
+  }
+
+  private fun countRows(connection: Connection, table: String): Int {
+    val result = connection.createStatement().executeQuery("SELECT COUNT(*) FROM $table")
+    return if (result.next()) result.getInt(1) else 0
+  }
+
+  private class MigrationTestTable(private vararg val columns: String) : DataStoreTable<MigrationTestTable.Statements>() {
+    enum class Statements
+
+    override fun prepareStatements() {}
+
+    override fun initialize(connection: Connection) {
+      initialize(connection, "Migration_Table")
+    }
+
+    fun initialize(connection: Connection, table: String) {
+      super.initialize(connection)
+      createTable(table, *columns)
+    }
+  }
 }
@@ -27,6 +27,7 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertFalse;
@@ -106,6 +107,38 @@ public class DatabaseTableTest {
     }
   }
 
+  @Test
+  public void testCommitWhileInserting() throws Exception {
+    AtomicBoolean errorThrown = new AtomicBoolean();
+    DataStoreTable.DataStoreTableErrorCallback callback = t -> errorThrown.set(true);
+    DataStoreTable.addDataStoreErrorCallback(callback);
+    try {
+      Thread writer = new Thread(() -> {
+        for (int i = 0; i < TEST_DATA_COUNT * 10; i++) {
+          myTable.insertData(i);
+        }
+      });
+      writer.start();
+      // Commit as often as possible while the data is being inserted, like the periodic commit can.
+      while (writer.isAlive()) {
+        myDatabase.commit();
+      }
+      writer.join();
+      myDatabase.commit();
+    }
+    finally {
+      DataStoreTable.removeDataStoreErrorCallback(callback);
+    }
+
+    assertFalse(errorThrown.get());
+    int count = 0;
+    ResultSet resultSet = myTable.readDataRaw();
+    while (resultSet.next()) {
+      count++;
+    }
+    assertThat(count).isEqualTo(TEST_DATA_COUNT * 10);
+  }
+
   /**
    * Runnable class that handles querying the database as fast as possible.
    */
@@ -31,6 +31,7 @@ import com.android.tools.profiler.proto.Memory.NativeBacktrace;
 import com.android.tools.profiler.proto.MemoryProfiler.AllocationSamplingRateEvent;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Consumer;
 import org.jetbrains.annotations.NotNull;
@@ -125,6 +126,18 @@ public class MemoryLiveAllocationTableTest extends DatabaseTest<MemoryLiveAlloca
     assertThat(querySample.get(0)).isEqualTo(sample1);
   }
 
+  @Test
+  public void testBatchInsertAllocationEvents() {
+    BatchAllocationEvents sample1 = BatchAllocationEvents.newBuilder().setTimestamp(1).build();
+    BatchAllocationEvents sample2 = BatchAllocationEvents.newBuilder().setTimestamp(2).build();
+    BatchAllocationEvents dupSample2 = BatchAllocationEvents.newBuilder().setTimestamp(2).build();
+    getTable().insertAllocationEvents(VALID_SESSION, Arrays.asList(sample1, sample2, dupSample2));
+    getTable().insertAllocationEvents(VALID_SESSION, Collections.emptyList());
+
+    List<BatchAllocationEvents> querySample = getTable().getAllocationEvents(VALID_SESSION, 0, Long.MAX_VALUE);
+    assertThat(querySample).containsExactly(sample1, sample2);
+  }
+
   NativeBacktrace createBacktrace(long... addresses) {
     NativeBacktrace.Builder result = NativeBacktrace.newBuilder();
     for (long address : addresses) {
@@ -17,6 +17,9 @@ package com.android.tools.datastore.poller;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
@@ -42,6 +45,26 @@ public class PollRunnerTest {
     assertEquals(runner.get(1, TimeUnit.SECONDS), null); // For code completion
   }
 
+  @Test
+  public void testIdlePollsBackOff() {
+    List<Long> periods = new ArrayList<>();
+    PollRunner runner = new PollRunner(TEST_PERIOD_NS, TEST_PERIOD_NS * 4) {
+      @Override
+      public void poll() {
+        periods.add(getCurrentPollPeriodNs());
+        // The first three polls have no new data, the fourth one does.
+        if (periods.size() <= 3) {
+          onIdlePoll();
+        }
+        else if (periods.size() == 5) {
+          cancel(true);
+        }
+      }
+    };
+    runner.run();
+    assertEquals(Arrays.asList(TEST_PERIOD_NS, TEST_PERIOD_NS * 2, TEST_PERIOD_NS * 4, TEST_PERIOD_NS * 4, TEST_PERIOD_NS), periods);
+  }
+
   private static class PollRunnerMinimalImpl extends PollRunner {
     private long myLastCallbackTime = 0;
     private long myTickCallCount = 0;